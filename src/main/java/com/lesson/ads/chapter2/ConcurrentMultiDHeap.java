@@ -0,0 +1,136 @@
+package com.lesson.ads.chapter2;
+
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Relaxed multi-queue: offer goes to a random stripe, poll takes the better top of two random
+// stripes, so the popped element is among the smallest ones rather than strictly the smallest.
+public class ConcurrentMultiDHeap<P extends Comparable<P>> {
+
+  private static final int INITIAL_STRIPE_SIZE = 16;
+
+  private final Comparator<P> comparator;
+  private final Stripe<P>[] stripes;
+  private final LongAdder size;
+
+  public ConcurrentMultiDHeap(int numberOfStripes, int branchFactor) {
+    this(numberOfStripes, branchFactor, Comparator.naturalOrder());
+  }
+
+  public ConcurrentMultiDHeap(int numberOfStripes, int branchFactor, Comparator<P> comparator) {
+    if (numberOfStripes < 1) {
+      throw new IllegalArgumentException("Parameter numberOfStripes should be positive");
+    }
+    if (comparator == null) {
+      throw new IllegalArgumentException("Parameter comparator should not null");
+    }
+
+    this.comparator = comparator;
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Stripe<P>[] stripes = new Stripe[numberOfStripes];
+    this.stripes = stripes;
+    for (int index = 0; index < numberOfStripes; index++) {
+      stripes[index] = new Stripe<>(
+          new DHeap<>(INITIAL_STRIPE_SIZE, branchFactor, comparator, true));
+    }
+    this.size = new LongAdder();
+  }
+
+  public void offer(P element) {
+    if (element == null) {
+      throw new IllegalArgumentException("Element cannot be null");
+    }
+    var random = ThreadLocalRandom.current();
+    var stripe = stripes[random.nextInt(stripes.length)];
+    // prefer an uncontended stripe, block only when all attempts failed
+    for (int attempt = 0; attempt < stripes.length && !stripe.lock.tryLock(); attempt++) {
+      stripe = stripes[random.nextInt(stripes.length)];
+    }
+    if (!stripe.lock.isHeldByCurrentThread()) {
+      stripe.lock.lock();
+    }
+    try {
+      stripe.add(element);
+    } finally {
+      stripe.lock.unlock();
+    }
+    size.increment();
+  }
+
+  public P poll() {
+    var random = ThreadLocalRandom.current();
+    for (int attempt = 0; attempt < stripes.length; attempt++) {
+      var stripe = better(
+          stripes[random.nextInt(stripes.length)], stripes[random.nextInt(stripes.length)]);
+      if (stripe.top != null && stripe.lock.tryLock()) {
+        try {
+          if (!stripe.heap.isEmpty()) {
+            size.decrement();
+            return stripe.pop();
+          }
+        } finally {
+          stripe.lock.unlock();
+        }
+      }
+    }
+    // sweep all stripes, so that null is returned only if queue looked empty
+    for (var stripe : stripes) {
+      stripe.lock.lock();
+      try {
+        if (!stripe.heap.isEmpty()) {
+          size.decrement();
+          return stripe.pop();
+        }
+      } finally {
+        stripe.lock.unlock();
+      }
+    }
+    return null;
+  }
+
+  public int size() {
+    return size.intValue();
+  }
+
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  private Stripe<P> better(Stripe<P> left, Stripe<P> right) {
+    var leftTop = left.top;
+    var rightTop = right.top;
+    if (leftTop == null) {
+      return right;
+    }
+    if (rightTop == null) {
+      return left;
+    }
+    return comparator.compare(leftTop, rightTop) <= 0 ? left : right;
+  }
+
+  private static class Stripe<P extends Comparable<P>> {
+
+    private final ReentrantLock lock;
+    private final DHeap<P> heap;
+    // published top of the heap, read without lock to choose a stripe
+    private volatile P top;
+
+    Stripe(DHeap<P> heap) {
+      this.lock = new ReentrantLock();
+      this.heap = heap;
+    }
+
+    void add(P element) {
+      heap.add(element);
+      top = heap.peek();
+    }
+
+    P pop() {
+      var element = heap.pop();
+      top = heap.isEmpty() ? null : heap.peek();
+      return element;
+    }
+  }
+}
@@ -1,5 +1,7 @@
 package com.lesson.ads.chapter2;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.NoSuchElementException;
 
@@ -8,7 +10,8 @@ public class DHeap<P extends Comparable<P>> {
 
   private final int branchFactor;
   private final Comparator<P> comparator;
-  private final Object[] elements;
+  private final boolean growable;
+  private Object[] elements;
   private int lastElementIndex;
 
   public DHeap(int size, int branchFactor) {
@@ -16,6 +19,10 @@ public class DHeap<P extends Comparable<P>> {
   }
 
   public DHeap(int size, int branchFactor, Comparator<P> comparator) {
+    this(size, branchFactor, comparator, false);
+  }
+
+  public DHeap(int size, int branchFactor, Comparator<P> comparator, boolean growable) {
     if (size < 0) {
       throw new IllegalArgumentException("Parameter size should be not negative");
     }
@@ -28,13 +35,60 @@ public class DHeap<P extends Comparable<P>> {
 
     this.branchFactor = branchFactor;
     this.comparator = comparator;
+    this.growable = growable;
     this.elements = new Object[size];
     this.lastElementIndex = -1;
   }
 
+  public static <P extends Comparable<P>> DHeap<P> heapify(
+      Collection<P> elements, int branchFactor) {
+    return heapify(elements, branchFactor, Comparator.naturalOrder());
+  }
+
+  public static <P extends Comparable<P>> DHeap<P> heapify(
+      Collection<P> elements, int branchFactor, Comparator<P> comparator) {
+    if (elements == null) {
+      throw new IllegalArgumentException("Parameter elements should not null");
+    }
+    var heap = new DHeap<>(elements.size(), branchFactor, comparator, true);
+    for (var element : elements) {
+      if (element == null) {
+        throw new IllegalArgumentException("Parameter elements should not contain null");
+      }
+      heap.elements[++heap.lastElementIndex] = element;
+    }
+    heap.build();
+    return heap;
+  }
+
+  public static <P extends Comparable<P>> DHeap<P> heapify(P[] elements, int branchFactor) {
+    return heapify(elements, branchFactor, Comparator.naturalOrder());
+  }
+
+  // elements are copied straight into the heap array, the given array is not modified
+  public static <P extends Comparable<P>> DHeap<P> heapify(
+      P[] elements, int branchFactor, Comparator<P> comparator) {
+    if (elements == null) {
+      throw new IllegalArgumentException("Parameter elements should not null");
+    }
+    var heap = new DHeap<>(0, branchFactor, comparator, true);
+    heap.elements = Arrays.copyOf(elements, elements.length, Object[].class);
+    for (var element : heap.elements) {
+      if (element == null) {
+        throw new IllegalArgumentException("Parameter elements should not contain null");
+      }
+    }
+    heap.lastElementIndex = elements.length - 1;
+    heap.build();
+    return heap;
+  }
+
   public void add(P element) {
     if (lastElementIndex == elements.length - 1) {
-      throw new NoSuchElementException("Queue is full");
+      if (!growable) {
+        throw new NoSuchElementException("Queue is full");
+      }
+      elements = Arrays.copyOf(elements, Math.max(1, elements.length * 2));
     }
     elements[++lastElementIndex] = element;
     popUp(lastElementIndex);
@@ -50,17 +104,36 @@ public class DHeap<P extends Comparable<P>> {
     }
   }
 
-  public P pop() {
+  public P peek() {
     if (lastElementIndex == -1) {
       throw new NoSuchElementException("Queue is empty");
     }
-    P element = (P) elements[0];
+    return (P) elements[0];
+  }
+
+  public P pop() {
+    P element = peek();
     swop(0, lastElementIndex);
     elements[lastElementIndex--] = null;
     pushDown(0);
     return element;
   }
 
+  public int size() {
+    return lastElementIndex + 1;
+  }
+
+  public boolean isEmpty() {
+    return lastElementIndex == -1;
+  }
+
+  // Floyd's bottom-up build: push down every internal node starting from the last one
+  private void build() {
+    for (int index = parentIndex(lastElementIndex); index >= 0; index--) {
+      pushDown(index);
+    }
+  }
+
   private void pushDown(int index) {
     int parentIndex = index;
     int minChildIndex = index;
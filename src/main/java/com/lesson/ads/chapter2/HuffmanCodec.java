@@ -0,0 +1,625 @@
+package com.lesson.ads.chapter2;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import lombok.SneakyThrows;
+
+// Stream format: 256 canonical code lengths (one byte per symbol) followed by blocks of
+// (int symbolCount, int encodedLength, encodedLength bytes of packed bits), terminated by
+// symbolCount 0. Codes are written most significant bit first.
+public class HuffmanCodec {
+
+  private static final int NUMBER_OF_SYMBOLS = 256;
+  private static final int MAX_CODE_LENGTH = 64;
+  private static final int BLOCK_SIZE = 1 << 16;
+  // block of BLOCK_SIZE symbols encoded with codes of MAX_CODE_LENGTH bits
+  private static final int MAX_ENCODED_BLOCK_SIZE = BLOCK_SIZE / 8 * MAX_CODE_LENGTH;
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final int LOOKUP_BITS = 11;
+  private static final int MAX_LOOKUP_BITS = 15;
+
+  private final int[] codeLengths;
+  private final long[] codes;
+
+  private HuffmanCodec(int[] codeLengths) {
+    this.codeLengths = codeLengths;
+    this.codes = canonicalCodes(codeLengths);
+  }
+
+  public static HuffmanCodec of(long[] frequencies) {
+    validateFrequencies(frequencies);
+    return new HuffmanCodec(codeLengths(frequencies));
+  }
+
+  // codes not longer than MAX_LOOKUP_BITS are decoded with a single table lookup per symbol
+  public static HuffmanCodec of(long[] frequencies, int maxCodeLength) {
+    validateFrequencies(frequencies);
+    if (maxCodeLength < 1 || maxCodeLength > MAX_CODE_LENGTH) {
+      throw new IllegalArgumentException(String.format(
+          "Parameter maxCodeLength should be in range [1, %s]: %s",
+          MAX_CODE_LENGTH, maxCodeLength));
+    }
+    return new HuffmanCodec(lengthLimitedCodeLengths(frequencies, maxCodeLength));
+  }
+
+  @SneakyThrows
+  public static long[] frequencies(InputStream input) {
+    validateNotNull(input, "input");
+    var frequencies = new long[NUMBER_OF_SYMBOLS];
+    var buffer = new byte[BUFFER_SIZE];
+    int read;
+    while ((read = input.read(buffer)) != -1) {
+      for (int index = 0; index < read; index++) {
+        frequencies[buffer[index] & 0xFF]++;
+      }
+    }
+    return frequencies;
+  }
+
+  @SneakyThrows
+  public static long[] frequencies(ReadableByteChannel input) {
+    validateNotNull(input, "input");
+    var frequencies = new long[NUMBER_OF_SYMBOLS];
+    var buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    while (input.read(buffer) != -1) {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        frequencies[buffer.get() & 0xFF]++;
+      }
+      buffer.clear();
+    }
+    return frequencies;
+  }
+
+  // every thread counts its own contiguous range into a private histogram
+  @SneakyThrows
+  public static long[] frequencies(FileChannel input, int parallelism) {
+    validateNotNull(input, "input");
+    validateParallelism(parallelism);
+    var size = input.size();
+    var executor = Executors.newFixedThreadPool(parallelism);
+    try {
+      var histograms = new ArrayList<Future<long[]>>();
+      for (int range = 0; range < parallelism; range++) {
+        var from = size * range / parallelism;
+        var to = size * (range + 1) / parallelism;
+        histograms.add(executor.submit(() -> frequencies(input, from, to)));
+      }
+      var frequencies = new long[NUMBER_OF_SYMBOLS];
+      for (var histogram : histograms) {
+        var rangeFrequencies = histogram.get();
+        for (int symbol = 0; symbol < NUMBER_OF_SYMBOLS; symbol++) {
+          frequencies[symbol] += rangeFrequencies[symbol];
+        }
+      }
+      return frequencies;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static long[] frequencies(FileChannel input, long from, long to) {
+    var frequencies = new long[NUMBER_OF_SYMBOLS];
+    for (long position = from; position < to; position += BUFFER_SIZE) {
+      var length = (int) Math.min(BUFFER_SIZE, to - position);
+      var buffer = read(input, position, length);
+      for (int index = 0; index < length; index++) {
+        frequencies[buffer[index] & 0xFF]++;
+      }
+    }
+    return frequencies;
+  }
+
+  public static byte[] encode(byte[] bytes) {
+    validateNotNull(bytes, "bytes");
+    var output = new ByteArrayOutputStream();
+    HuffmanCodec.of(frequencies(new ByteArrayInputStream(bytes)))
+        .encode(new ByteArrayInputStream(bytes), output);
+    return output.toByteArray();
+  }
+
+  public static byte[] decode(byte[] bytes) {
+    validateNotNull(bytes, "bytes");
+    var output = new ByteArrayOutputStream();
+    decode(new ByteArrayInputStream(bytes), output);
+    return output.toByteArray();
+  }
+
+  @SneakyThrows
+  public void encode(InputStream input, OutputStream output) {
+    validateNotNull(input, "input");
+    validateNotNull(output, "output");
+    var dataOutput = new DataOutputStream(new BufferedOutputStream(output, BUFFER_SIZE));
+    writeHeader(dataOutput);
+    var block = new byte[BLOCK_SIZE];
+    var bitWriter = new BitWriter();
+    int read;
+    while ((read = input.readNBytes(block, 0, BLOCK_SIZE)) > 0) {
+      encodeBlock(block, read, bitWriter);
+      writeBlock(dataOutput, read, bitWriter.bytes, bitWriter.size);
+    }
+    dataOutput.writeInt(0);
+    dataOutput.flush();
+  }
+
+  // blocks are encoded concurrently and written in input order, at most two blocks per thread
+  // are kept in memory
+  @SneakyThrows
+  public void encode(FileChannel input, OutputStream output, int parallelism) {
+    validateNotNull(input, "input");
+    validateNotNull(output, "output");
+    validateParallelism(parallelism);
+    var dataOutput = new DataOutputStream(new BufferedOutputStream(output, BUFFER_SIZE));
+    writeHeader(dataOutput);
+    var executor = Executors.newFixedThreadPool(parallelism);
+    try {
+      var size = input.size();
+      var encodedBlocks = new ArrayDeque<Future<EncodedBlock>>();
+      for (long position = 0; position < size; position += BLOCK_SIZE) {
+        var blockPosition = position;
+        var blockLength = (int) Math.min(BLOCK_SIZE, size - position);
+        encodedBlocks.add(executor.submit(() -> {
+          var bitWriter = new BitWriter();
+          encodeBlock(read(input, blockPosition, blockLength), blockLength, bitWriter);
+          return new EncodedBlock(blockLength, Arrays.copyOf(bitWriter.bytes, bitWriter.size));
+        }));
+        if (encodedBlocks.size() >= 2 * parallelism) {
+          writeBlock(dataOutput, encodedBlocks.poll().get());
+        }
+      }
+      while (!encodedBlocks.isEmpty()) {
+        writeBlock(dataOutput, encodedBlocks.poll().get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    dataOutput.writeInt(0);
+    dataOutput.flush();
+  }
+
+  public void encode(ReadableByteChannel input, OutputStream output) {
+    validateNotNull(input, "input");
+    encode(Channels.newInputStream(input), output);
+  }
+
+  @SneakyThrows
+  public static void decode(InputStream input, OutputStream output) {
+    validateNotNull(input, "input");
+    validateNotNull(output, "output");
+    var dataInput = new DataInputStream(input);
+    var codeLengths = new int[NUMBER_OF_SYMBOLS];
+    for (int symbol = 0; symbol < NUMBER_OF_SYMBOLS; symbol++) {
+      codeLengths[symbol] = dataInput.readUnsignedByte();
+    }
+    var decoder = new Decoder(codeLengths);
+    var block = new byte[BLOCK_SIZE];
+    var encodedBlock = new byte[0];
+    int symbolCount;
+    while ((symbolCount = dataInput.readInt()) != 0) {
+      var encodedLength = dataInput.readInt();
+      if (symbolCount < 0 || symbolCount > BLOCK_SIZE
+          || encodedLength < 0 || encodedLength > MAX_ENCODED_BLOCK_SIZE) {
+        throw new IllegalArgumentException(String.format(
+            "Malformed block: symbolCount=%s, encodedLength=%s", symbolCount, encodedLength));
+      }
+      if (encodedBlock.length < encodedLength) {
+        encodedBlock = new byte[encodedLength];
+      }
+      dataInput.readFully(encodedBlock, 0, encodedLength);
+      decoder.decode(new BitReader(encodedBlock, encodedLength), block, symbolCount);
+      output.write(block, 0, symbolCount);
+    }
+    output.flush();
+  }
+
+  public static void decode(ReadableByteChannel input, OutputStream output) {
+    validateNotNull(input, "input");
+    decode(Channels.newInputStream(input), output);
+  }
+
+  private void writeHeader(DataOutputStream dataOutput) throws IOException {
+    for (var codeLength : codeLengths) {
+      dataOutput.writeByte(codeLength);
+    }
+  }
+
+  private void encodeBlock(byte[] block, int length, BitWriter bitWriter) {
+    bitWriter.reset();
+    for (int index = 0; index < length; index++) {
+      var symbol = block[index] & 0xFF;
+      if (codeLengths[symbol] == 0) {
+        throw new IllegalArgumentException(
+            String.format("Symbol has no code: symbol=%s", symbol));
+      }
+      bitWriter.write(codes[symbol], codeLengths[symbol]);
+    }
+    bitWriter.flush();
+  }
+
+  private static void writeBlock(DataOutputStream dataOutput, EncodedBlock encodedBlock)
+      throws IOException {
+    writeBlock(
+        dataOutput, encodedBlock.symbolCount, encodedBlock.bytes, encodedBlock.bytes.length);
+  }
+
+  private static void writeBlock(
+      DataOutputStream dataOutput, int symbolCount, byte[] bytes, int length)
+      throws IOException {
+    dataOutput.writeInt(symbolCount);
+    dataOutput.writeInt(length);
+    dataOutput.write(bytes, 0, length);
+  }
+
+  @SneakyThrows
+  private static byte[] read(FileChannel input, long position, int length) {
+    var buffer = ByteBuffer.allocate(length);
+    while (buffer.hasRemaining()) {
+      if (input.read(buffer, position + buffer.position()) == -1) {
+        throw new IllegalArgumentException(
+            String.format("Unexpected end of input: position=%s", position + buffer.position()));
+      }
+    }
+    return buffer.array();
+  }
+
+  public int codeLength(int symbol) {
+    return codeLengths[symbol];
+  }
+
+  private static int[] codeLengths(long[] frequencies) {
+    var codeLengths = new int[NUMBER_OF_SYMBOLS];
+    var queue = new DHeap<TreeNode>(NUMBER_OF_SYMBOLS, 2);
+    for (int symbol = 0; symbol < NUMBER_OF_SYMBOLS; symbol++) {
+      if (frequencies[symbol] > 0) {
+        queue.add(TreeNode.of(symbol, frequencies[symbol]));
+      }
+    }
+    if (queue.size() == 1) {
+      codeLengths[queue.pop().symbol] = 1;
+      return codeLengths;
+    }
+    while (queue.size() > 1) {
+      queue.add(TreeNode.merge(queue.pop(), queue.pop()));
+    }
+    if (!queue.isEmpty()) {
+      buildCodeLengths(queue.pop(), 0, codeLengths);
+    }
+    if (Arrays.stream(codeLengths).max().orElse(0) > MAX_CODE_LENGTH) {
+      throw new IllegalArgumentException(String.format(
+          "Frequencies produce code longer than %s bits", MAX_CODE_LENGTH));
+    }
+    return codeLengths;
+  }
+
+  // package-merge: the cheapest 2n - 2 items of the last list define the optimal code lengths,
+  // every leaf occurrence among them adds one bit to the code length of its symbol
+  private static int[] lengthLimitedCodeLengths(long[] frequencies, int maxCodeLength) {
+    var codeLengths = new int[NUMBER_OF_SYMBOLS];
+    var leaves = IntStream.range(0, NUMBER_OF_SYMBOLS)
+        .filter(symbol -> frequencies[symbol] > 0)
+        .mapToObj(symbol -> TreeNode.of(symbol, frequencies[symbol]))
+        .sorted()
+        .toList();
+    if (leaves.size() <= 1) {
+      leaves.forEach(leaf -> codeLengths[leaf.symbol] = 1);
+      return codeLengths;
+    }
+    if (maxCodeLength < Integer.SIZE - Integer.numberOfLeadingZeros(leaves.size() - 1)) {
+      throw new IllegalArgumentException(String.format(
+          "Parameter maxCodeLength is too small for alphabet: maxCodeLength=%s, symbols=%s",
+          maxCodeLength, leaves.size()));
+    }
+    var items = leaves;
+    for (int length = 1; length < maxCodeLength; length++) {
+      var packages = new ArrayList<TreeNode>();
+      for (int index = 0; index + 1 < items.size(); index += 2) {
+        packages.add(TreeNode.merge(items.get(index), items.get(index + 1)));
+      }
+      items = mergeByFrequency(leaves, packages);
+    }
+    for (int index = 0; index < 2 * leaves.size() - 2; index++) {
+      countLeaves(items.get(index), codeLengths);
+    }
+    return codeLengths;
+  }
+
+  private static List<TreeNode> mergeByFrequency(List<TreeNode> leaves, List<TreeNode> packages) {
+    var items = new ArrayList<TreeNode>(leaves.size() + packages.size());
+    int leafIndex = 0;
+    int packageIndex = 0;
+    while (leafIndex < leaves.size() || packageIndex < packages.size()) {
+      if (packageIndex == packages.size() || (leafIndex < leaves.size()
+          && leaves.get(leafIndex).frequency <= packages.get(packageIndex).frequency)) {
+        items.add(leaves.get(leafIndex++));
+      } else {
+        items.add(packages.get(packageIndex++));
+      }
+    }
+    return items;
+  }
+
+  private static void countLeaves(TreeNode node, int[] codeLengths) {
+    if (node.leaf()) {
+      codeLengths[node.symbol]++;
+    } else {
+      countLeaves(node.leftChild, codeLengths);
+      countLeaves(node.rightChild, codeLengths);
+    }
+  }
+
+  private static void buildCodeLengths(TreeNode node, int depth, int[] codeLengths) {
+    if (node.leaf()) {
+      codeLengths[node.symbol] = depth;
+    } else {
+      buildCodeLengths(node.leftChild, depth + 1, codeLengths);
+      buildCodeLengths(node.rightChild, depth + 1, codeLengths);
+    }
+  }
+
+  // canonical assignment: codes of the same length are consecutive and ordered by symbol
+  private static long[] canonicalCodes(int[] codeLengths) {
+    var lengthCounts = lengthCounts(codeLengths);
+    var nextCodes = new long[MAX_CODE_LENGTH + 1];
+    long code = 0;
+    for (int length = 1; length <= MAX_CODE_LENGTH; length++) {
+      code = (code + lengthCounts[length - 1]) << 1;
+      nextCodes[length] = code;
+    }
+    var codes = new long[NUMBER_OF_SYMBOLS];
+    for (int symbol = 0; symbol < NUMBER_OF_SYMBOLS; symbol++) {
+      if (codeLengths[symbol] > 0) {
+        codes[symbol] = nextCodes[codeLengths[symbol]]++;
+      }
+    }
+    return codes;
+  }
+
+  private static int[] lengthCounts(int[] codeLengths) {
+    var lengthCounts = new int[MAX_CODE_LENGTH + 1];
+    for (var codeLength : codeLengths) {
+      if (codeLength > MAX_CODE_LENGTH) {
+        throw new IllegalArgumentException(
+            String.format("Malformed code length: codeLength=%s", codeLength));
+      }
+      if (codeLength > 0) {
+        lengthCounts[codeLength]++;
+      }
+    }
+    return lengthCounts;
+  }
+
+  // lengths of a prefix code satisfy sum(2^-codeLength) <= 1, otherwise canonical codes overflow
+  // their lengths; counted as the number of unused codes of every length
+  private static void validateKraftInequality(int[] lengthCounts) {
+    long unusedCodes = 1;
+    for (int length = 1; length <= MAX_CODE_LENGTH; length++) {
+      // capped, since more unused codes than symbols can not be exhausted
+      unusedCodes = Math.min(2 * unusedCodes, NUMBER_OF_SYMBOLS) - lengthCounts[length];
+      if (unusedCodes < 0) {
+        throw new IllegalArgumentException(String.format(
+            "Malformed code lengths: codeLength=%s, count=%s", length, lengthCounts[length]));
+      }
+    }
+  }
+
+  private static void validateFrequencies(long[] frequencies) {
+    if (frequencies == null || frequencies.length != NUMBER_OF_SYMBOLS) {
+      throw new IllegalArgumentException(
+          String.format("Parameter frequencies should have %s elements", NUMBER_OF_SYMBOLS));
+    }
+    if (Arrays.stream(frequencies).anyMatch(frequency -> frequency < 0)) {
+      throw new IllegalArgumentException("Parameter frequencies should be not negative");
+    }
+  }
+
+  private static void validateParallelism(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parameter parallelism should be positive");
+    }
+  }
+
+  private static void validateNotNull(Object parameter, String name) {
+    if (parameter == null) {
+      throw new IllegalArgumentException(String.format("Parameter %s should not null", name));
+    }
+  }
+
+  private static class Decoder {
+
+    private final int[] lengthCounts;
+    private final int[] sortedSymbols;
+    // single table covers all codes up to MAX_LOOKUP_BITS, otherwise LOOKUP_BITS table is
+    // backed by slow decoding
+    private final int lookupBits;
+    // entry is (symbol << 8 | codeLength), zero when code is longer than lookupBits
+    private final int[] lookup;
+
+    Decoder(int[] codeLengths) {
+      this.lengthCounts = lengthCounts(codeLengths);
+      validateKraftInequality(lengthCounts);
+      var maxCodeLength = Arrays.stream(codeLengths).max().orElse(0);
+      this.lookupBits = maxCodeLength <= MAX_LOOKUP_BITS ? Math.max(1, maxCodeLength) : LOOKUP_BITS;
+      this.sortedSymbols = IntStream.range(0, NUMBER_OF_SYMBOLS)
+          .filter(symbol -> codeLengths[symbol] > 0)
+          .boxed()
+          .sorted(Comparator.<Integer>comparingInt(symbol -> codeLengths[symbol])
+              .thenComparingInt(symbol -> symbol))
+          .mapToInt(Integer::intValue)
+          .toArray();
+      this.lookup = new int[1 << lookupBits];
+      var codes = canonicalCodes(codeLengths);
+      for (int symbol = 0; symbol < NUMBER_OF_SYMBOLS; symbol++) {
+        var codeLength = codeLengths[symbol];
+        if (codeLength > 0 && codeLength <= lookupBits) {
+          var shift = lookupBits - codeLength;
+          var from = (int) codes[symbol] << shift;
+          Arrays.fill(lookup, from, from + (1 << shift), symbol << 8 | codeLength);
+        }
+      }
+    }
+
+    void decode(BitReader bitReader, byte[] block, int symbolCount) {
+      for (int index = 0; index < symbolCount; index++) {
+        var entry = lookup[(int) bitReader.peek(lookupBits)];
+        if (entry != 0) {
+          bitReader.consume(entry & 0xFF);
+          block[index] = (byte) (entry >>> 8);
+        } else {
+          block[index] = (byte) decodeSlow(bitReader);
+        }
+      }
+    }
+
+    // canonical decoding one bit at a time, used only for codes longer than lookupBits
+    private int decodeSlow(BitReader bitReader) {
+      long code = 0;
+      long first = 0;
+      int index = 0;
+      for (int length = 1; length <= MAX_CODE_LENGTH; length++) {
+        code |= bitReader.peek(1);
+        bitReader.consume(1);
+        var count = lengthCounts[length];
+        if (code - first < count) {
+          return sortedSymbols[index + (int) (code - first)];
+        }
+        index += count;
+        first = (first + count) << 1;
+        code <<= 1;
+      }
+      throw new IllegalArgumentException("Malformed encoded block");
+    }
+  }
+
+  private record EncodedBlock(int symbolCount, byte[] bytes) {
+
+  }
+
+  private static class BitWriter {
+
+    private byte[] bytes = new byte[BLOCK_SIZE];
+    private int size;
+    private long buffer;
+    private int bufferLength;
+
+    void write(long code, int length) {
+      if (length > 32) {
+        writeBits(code >>> 32, length - 32);
+        writeBits(code & 0xFFFFFFFFL, 32);
+      } else {
+        writeBits(code, length);
+      }
+    }
+
+    private void writeBits(long bits, int length) {
+      buffer = (buffer << length) | bits;
+      bufferLength += length;
+      while (bufferLength >= 8) {
+        bufferLength -= 8;
+        writeByte((byte) (buffer >>> bufferLength));
+      }
+    }
+
+    void flush() {
+      if (bufferLength > 0) {
+        writeByte((byte) (buffer << (8 - bufferLength)));
+        bufferLength = 0;
+      }
+    }
+
+    void reset() {
+      size = 0;
+      buffer = 0;
+      bufferLength = 0;
+    }
+
+    private void writeByte(byte value) {
+      if (size == bytes.length) {
+        bytes = Arrays.copyOf(bytes, bytes.length * 2);
+      }
+      bytes[size++] = value;
+    }
+  }
+
+  private static class BitReader {
+
+    private final byte[] bytes;
+    private final int length;
+    private int position;
+    // left aligned bit window, bits beyond the end of input are read as zeros
+    private long window;
+    private int windowLength;
+
+    BitReader(byte[] bytes, int length) {
+      this.bytes = bytes;
+      this.length = length;
+    }
+
+    long peek(int bitLength) {
+      while (windowLength <= 56) {
+        var value = position < length ? bytes[position] & 0xFFL : 0L;
+        position++;
+        window |= value << (56 - windowLength);
+        windowLength += 8;
+      }
+      return window >>> (64 - bitLength);
+    }
+
+    void consume(int bitLength) {
+      window <<= bitLength;
+      windowLength -= bitLength;
+    }
+  }
+
+  private record TreeNode(
+      int symbol,
+      long frequency,
+      TreeNode leftChild,
+      TreeNode rightChild
+  ) implements Comparable<TreeNode> {
+
+    private static final Comparator<TreeNode> COMPARATOR =
+        Comparator.comparing(TreeNode::frequency)
+            .thenComparing(TreeNode::symbol);
+
+    static TreeNode of(int symbol, long frequency) {
+      return new TreeNode(symbol, frequency, null, null);
+    }
+
+    static TreeNode merge(TreeNode leftChild, TreeNode rightChild) {
+      return new TreeNode(
+          Math.min(leftChild.symbol, rightChild.symbol),
+          leftChild.frequency + rightChild.frequency,
+          leftChild,
+          rightChild
+      );
+    }
+
+    boolean leaf() {
+      return leftChild == null && rightChild == null;
+    }
+
+    @Override
+    @SuppressWarnings("NullableProblems")
+    public int compareTo(TreeNode that) {
+      return COMPARATOR.compare(this, that);
+    }
+  }
+}
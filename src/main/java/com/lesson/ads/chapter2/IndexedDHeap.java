@@ -0,0 +1,209 @@
+package com.lesson.ads.chapter2;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+@SuppressWarnings({"unchecked"})
+public class IndexedDHeap<E, P extends Comparable<P>> {
+
+  private final int branchFactor;
+  private final Comparator<P> comparator;
+  private final Object[] elements;
+  private final Object[] priorities;
+  private final Map<E, Integer> elementToIndex;
+  private int lastElementIndex;
+
+  public IndexedDHeap(int size, int branchFactor) {
+    this(size, branchFactor, Comparator.naturalOrder());
+  }
+
+  public IndexedDHeap(int size, int branchFactor, Comparator<P> comparator) {
+    if (size < 0) {
+      throw new IllegalArgumentException("Parameter size should be not negative");
+    }
+    if (branchFactor < 2) {
+      throw new IllegalArgumentException("Parameter branchingFactor should be greater than 1");
+    }
+    if (comparator == null) {
+      throw new IllegalArgumentException("Parameter comparator should not null");
+    }
+
+    this.branchFactor = branchFactor;
+    this.comparator = comparator;
+    this.elements = new Object[size];
+    this.priorities = new Object[size];
+    this.elementToIndex = new HashMap<>();
+    this.lastElementIndex = -1;
+  }
+
+  public void add(E element, P priority) {
+    validateElement(element);
+    validatePriority(priority);
+    if (elementToIndex.containsKey(element)) {
+      throw new IllegalArgumentException(
+          String.format("Element already present: element=%s", element));
+    }
+    if (lastElementIndex == elements.length - 1) {
+      throw new NoSuchElementException("Queue is full");
+    }
+    lastElementIndex++;
+    set(lastElementIndex, element, priority);
+    popUp(lastElementIndex);
+  }
+
+  public E peek() {
+    if (lastElementIndex == -1) {
+      throw new NoSuchElementException("Queue is empty");
+    }
+    return (E) elements[0];
+  }
+
+  public E pop() {
+    var element = peek();
+    removeAt(0);
+    return element;
+  }
+
+  public boolean contains(E element) {
+    return elementToIndex.containsKey(element);
+  }
+
+  public P priority(E element) {
+    return (P) priorities[index(element)];
+  }
+
+  public void updatePriority(E element, P priority) {
+    validatePriority(priority);
+    var index = index(element);
+    var oldPriority = (P) priorities[index];
+    priorities[index] = priority;
+    if (comparator.compare(priority, oldPriority) < 0) {
+      popUp(index);
+    } else {
+      pushDown(index);
+    }
+  }
+
+  public void decreaseKey(E element, P priority) {
+    validatePriority(priority);
+    var index = index(element);
+    if (comparator.compare(priority, (P) priorities[index]) > 0) {
+      throw new IllegalArgumentException(String.format(
+          "New priority should not be greater than current: element=%s, current=%s, new=%s",
+          element, priorities[index], priority));
+    }
+    priorities[index] = priority;
+    popUp(index);
+  }
+
+  public boolean remove(E element) {
+    var index = elementToIndex.get(element);
+    if (index == null) {
+      return false;
+    }
+    removeAt(index);
+    return true;
+  }
+
+  public int size() {
+    return lastElementIndex + 1;
+  }
+
+  public boolean isEmpty() {
+    return lastElementIndex == -1;
+  }
+
+  private void removeAt(int index) {
+    elementToIndex.remove((E) elements[index]);
+    if (index == lastElementIndex) {
+      elements[lastElementIndex] = null;
+      priorities[lastElementIndex--] = null;
+      return;
+    }
+    set(index, (E) elements[lastElementIndex], (P) priorities[lastElementIndex]);
+    elements[lastElementIndex] = null;
+    priorities[lastElementIndex--] = null;
+    // moved last element may violate heap property in either direction
+    if (index > 0 && less(index, parentIndex(index))) {
+      popUp(index);
+    } else {
+      pushDown(index);
+    }
+  }
+
+  private void popUp(int index) {
+    int childIndex = index;
+    int parentIndex = parentIndex(index);
+    while (childIndex > 0 && less(childIndex, parentIndex)) {
+      swop(parentIndex, childIndex);
+      childIndex = parentIndex;
+      parentIndex = parentIndex(parentIndex);
+    }
+  }
+
+  private void pushDown(int index) {
+    int parentIndex = index;
+    int minChildIndex = index;
+    while (true) {
+      for (
+          int childIndex = parentIndex * branchFactor + 1;
+          childIndex <= (parentIndex + 1) * branchFactor && childIndex <= lastElementIndex;
+          childIndex++
+      ) {
+        if (less(childIndex, minChildIndex)) {
+          minChildIndex = childIndex;
+        }
+      }
+      if (parentIndex != minChildIndex) {
+        swop(parentIndex, minChildIndex);
+        parentIndex = minChildIndex;
+      } else {
+        break;
+      }
+    }
+  }
+
+  private int parentIndex(int childIndex) {
+    return (childIndex - 1) / branchFactor;
+  }
+
+  private boolean less(int leftIndex, int rightIndex) {
+    return comparator.compare((P) priorities[leftIndex], (P) priorities[rightIndex]) < 0;
+  }
+
+  private void swop(int leftIndex, int rightIndex) {
+    var leftElement = (E) elements[leftIndex];
+    var leftPriority = (P) priorities[leftIndex];
+    set(leftIndex, (E) elements[rightIndex], (P) priorities[rightIndex]);
+    set(rightIndex, leftElement, leftPriority);
+  }
+
+  private void set(int index, E element, P priority) {
+    elements[index] = element;
+    priorities[index] = priority;
+    elementToIndex.put(element, index);
+  }
+
+  private int index(E element) {
+    var index = elementToIndex.get(element);
+    if (index == null) {
+      throw new NoSuchElementException(
+          String.format("Element not present: element=%s", element));
+    }
+    return index;
+  }
+
+  private void validateElement(E element) {
+    if (element == null) {
+      throw new IllegalArgumentException("Element cannot be null");
+    }
+  }
+
+  private void validatePriority(P priority) {
+    if (priority == null) {
+      throw new IllegalArgumentException("Priority cannot be null");
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package com.lesson.ads.chapter2;
+
+import java.util.NoSuchElementException;
+
+public class IntDoubleDHeap {
+
+  private final int branchFactor;
+  private final int[] elements;
+  private final double[] priorities;
+  private int lastElementIndex;
+
+  public IntDoubleDHeap(int size, int branchFactor) {
+    if (size < 0) {
+      throw new IllegalArgumentException("Parameter size should be not negative");
+    }
+    if (branchFactor < 2) {
+      throw new IllegalArgumentException("Parameter branchingFactor should be greater than 1");
+    }
+
+    this.branchFactor = branchFactor;
+    this.elements = new int[size];
+    this.priorities = new double[size];
+    this.lastElementIndex = -1;
+  }
+
+  public void add(int element, double priority) {
+    if (Double.isNaN(priority)) {
+      throw new IllegalArgumentException("Priority cannot be NaN");
+    }
+    if (lastElementIndex == elements.length - 1) {
+      throw new NoSuchElementException("Queue is full");
+    }
+    popUp(++lastElementIndex, element, priority);
+  }
+
+  // hole technique: shift parents down and write the element once
+  private void popUp(int index, int element, double priority) {
+    int childIndex = index;
+    while (childIndex > 0) {
+      int parentIndex = (childIndex - 1) / branchFactor;
+      if (priority >= priorities[parentIndex]) {
+        break;
+      }
+      elements[childIndex] = elements[parentIndex];
+      priorities[childIndex] = priorities[parentIndex];
+      childIndex = parentIndex;
+    }
+    elements[childIndex] = element;
+    priorities[childIndex] = priority;
+  }
+
+  public int peek() {
+    validateNotEmpty();
+    return elements[0];
+  }
+
+  public double peekPriority() {
+    validateNotEmpty();
+    return priorities[0];
+  }
+
+  public int pop() {
+    validateNotEmpty();
+    int element = elements[0];
+    int lastElement = elements[lastElementIndex];
+    double lastPriority = priorities[lastElementIndex--];
+    if (lastElementIndex >= 0) {
+      pushDown(0, lastElement, lastPriority);
+    }
+    return element;
+  }
+
+  private void pushDown(int index, int element, double priority) {
+    int parentIndex = index;
+    while (true) {
+      int firstChildIndex = parentIndex * branchFactor + 1;
+      if (firstChildIndex > lastElementIndex) {
+        break;
+      }
+      int lastChildIndex = Math.min(firstChildIndex + branchFactor - 1, lastElementIndex);
+      int minChildIndex = firstChildIndex;
+      double minChildPriority = priorities[firstChildIndex];
+      for (int childIndex = firstChildIndex + 1; childIndex <= lastChildIndex; childIndex++) {
+        if (priorities[childIndex] < minChildPriority) {
+          minChildIndex = childIndex;
+          minChildPriority = priorities[childIndex];
+        }
+      }
+      if (priority <= minChildPriority) {
+        break;
+      }
+      elements[parentIndex] = elements[minChildIndex];
+      priorities[parentIndex] = minChildPriority;
+      parentIndex = minChildIndex;
+    }
+    elements[parentIndex] = element;
+    priorities[parentIndex] = priority;
+  }
+
+  public int size() {
+    return lastElementIndex + 1;
+  }
+
+  public boolean isEmpty() {
+    return lastElementIndex == -1;
+  }
+
+  public void clear() {
+    lastElementIndex = -1;
+  }
+
+  private void validateNotEmpty() {
+    if (lastElementIndex == -1) {
+      throw new NoSuchElementException("Queue is empty");
+    }
+  }
+}
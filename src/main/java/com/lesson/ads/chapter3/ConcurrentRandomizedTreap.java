@@ -0,0 +1,67 @@
+package com.lesson.ads.chapter3;
+
+import com.lesson.ads.chapter3.Treap.Entry;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Copy-on-write randomized treap: readers take the current persistent snapshot with a single
+// volatile read and never block, writers publish a path-copied snapshot with CAS.
+public class ConcurrentRandomizedTreap<K extends Comparable<K>> implements Iterable<K> {
+
+  private final AtomicReference<PersistentTreap<K, Double>> treap =
+      new AtomicReference<>(PersistentTreap.empty());
+
+  public Optional<K> get(K key) {
+    return treap.get().getElement(key).map(Entry::key);
+  }
+
+  public Optional<K> min() {
+    return treap.get().getMinKeyElement().map(Entry::key);
+  }
+
+  public Optional<K> max() {
+    return treap.get().getMaxKeyElement().map(Entry::key);
+  }
+
+  public K put(K key) {
+    Objects.requireNonNull(key);
+    // priority is drawn once, update function may be applied several times on contention
+    var priority = ThreadLocalRandom.current().nextDouble();
+    treap.updateAndGet(snapshot -> snapshot.put(key, priority));
+    return key;
+  }
+
+  public K delete(K key) {
+    treap.updateAndGet(snapshot -> snapshot.delete(key));
+    return key;
+  }
+
+  public int size() {
+    return treap.get().size();
+  }
+
+  // consistent view which is not affected by later updates
+  public PersistentTreap<K, Double> snapshot() {
+    return treap.get();
+  }
+
+  @Override
+  public Iterator<K> iterator() {
+    var iterator = treap.get().iterator();
+    return new Iterator<>() {
+
+      @Override
+      public boolean hasNext() {
+        return iterator.hasNext();
+      }
+
+      @Override
+      public K next() {
+        return iterator.next().key();
+      }
+    };
+  }
+}
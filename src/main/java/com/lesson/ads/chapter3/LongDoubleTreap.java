@@ -0,0 +1,233 @@
+package com.lesson.ads.chapter3;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
+
+// Struct-of-arrays treap: node is an index into parallel arrays, deleted nodes are reused
+// through free list linked by left child index. Lower priority value is closer to root.
+public class LongDoubleTreap {
+
+  private static final int NIL = -1;
+
+  private long[] keys;
+  private double[] priorities;
+  private int[] lefts;
+  private int[] rights;
+  private int[] parents;
+  private int root;
+  private int size;
+  private int freeHead;
+  private int unusedIndex;
+
+  public LongDoubleTreap() {
+    this(16);
+  }
+
+  public LongDoubleTreap(int capacity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("Parameter capacity should be not negative");
+    }
+    this.keys = new long[capacity];
+    this.priorities = new double[capacity];
+    this.lefts = new int[capacity];
+    this.rights = new int[capacity];
+    this.parents = new int[capacity];
+    this.root = NIL;
+    this.freeHead = NIL;
+  }
+
+  public boolean contains(long key) {
+    return node(key) != NIL;
+  }
+
+  public OptionalDouble getPriority(long key) {
+    var node = node(key);
+    return node == NIL ? OptionalDouble.empty() : OptionalDouble.of(priorities[node]);
+  }
+
+  public OptionalLong minKey() {
+    if (root == NIL) {
+      return OptionalLong.empty();
+    }
+    var node = root;
+    while (lefts[node] != NIL) {
+      node = lefts[node];
+    }
+    return OptionalLong.of(keys[node]);
+  }
+
+  public OptionalLong maxKey() {
+    if (root == NIL) {
+      return OptionalLong.empty();
+    }
+    var node = root;
+    while (rights[node] != NIL) {
+      node = rights[node];
+    }
+    return OptionalLong.of(keys[node]);
+  }
+
+  public OptionalLong topPriorityKey() {
+    return root == NIL ? OptionalLong.empty() : OptionalLong.of(keys[root]);
+  }
+
+  public void put(long key, double priority) {
+    if (Double.isNaN(priority)) {
+      throw new IllegalArgumentException("Priority cannot be NaN");
+    }
+
+    var node = root;
+    var parent = NIL;
+    while (node != NIL) {
+      parent = node;
+      if (key == keys[node]) {
+        priorities[node] = priority;
+        popUp(node);
+        pushDown(node);
+        return;
+      }
+      node = key < keys[node] ? lefts[node] : rights[node];
+    }
+    var child = allocate(key, priority);
+    parents[child] = parent;
+    if (parent == NIL) {
+      root = child;
+    } else if (key < keys[parent]) {
+      lefts[parent] = child;
+    } else {
+      rights[parent] = child;
+    }
+    size++;
+    popUp(child);
+  }
+
+  public double delete(long key) {
+    var node = node(key);
+    if (node == NIL) {
+      throw new NoSuchElementException(String.format("Element not found: key=%s", key));
+    }
+    while (lefts[node] != NIL || rights[node] != NIL) {
+      rotateUp(higherPriorityChild(node));
+    }
+    var parent = parents[node];
+    if (parent == NIL) {
+      root = NIL;
+    } else if (lefts[parent] == node) {
+      lefts[parent] = NIL;
+    } else {
+      rights[parent] = NIL;
+    }
+    var priority = priorities[node];
+    free(node);
+    size--;
+    return priority;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  private int node(long key) {
+    var node = root;
+    while (node != NIL && keys[node] != key) {
+      node = key < keys[node] ? lefts[node] : rights[node];
+    }
+    return node;
+  }
+
+  private void popUp(int node) {
+    while (parents[node] != NIL && priorities[node] < priorities[parents[node]]) {
+      rotateUp(node);
+    }
+  }
+
+  private void pushDown(int node) {
+    while (lefts[node] != NIL || rights[node] != NIL) {
+      var child = higherPriorityChild(node);
+      if (priorities[child] < priorities[node]) {
+        rotateUp(child);
+      } else {
+        break;
+      }
+    }
+  }
+
+  private int higherPriorityChild(int node) {
+    var left = lefts[node];
+    var right = rights[node];
+    if (left == NIL) {
+      return right;
+    }
+    if (right == NIL) {
+      return left;
+    }
+    return priorities[left] < priorities[right] ? left : right;
+  }
+
+  // right rotation for left child, left rotation for right child
+  private void rotateUp(int node) {
+    var parent = parents[node];
+    var grandParent = parents[parent];
+    if (lefts[parent] == node) {
+      lefts[parent] = rights[node];
+      if (rights[node] != NIL) {
+        parents[rights[node]] = parent;
+      }
+      rights[node] = parent;
+    } else {
+      rights[parent] = lefts[node];
+      if (lefts[node] != NIL) {
+        parents[lefts[node]] = parent;
+      }
+      lefts[node] = parent;
+    }
+    parents[parent] = node;
+    parents[node] = grandParent;
+    if (grandParent == NIL) {
+      root = node;
+    } else if (lefts[grandParent] == parent) {
+      lefts[grandParent] = node;
+    } else {
+      rights[grandParent] = node;
+    }
+  }
+
+  private int allocate(long key, double priority) {
+    int node;
+    if (freeHead != NIL) {
+      node = freeHead;
+      freeHead = lefts[node];
+    } else {
+      if (unusedIndex == keys.length) {
+        grow();
+      }
+      node = unusedIndex++;
+    }
+    keys[node] = key;
+    priorities[node] = priority;
+    lefts[node] = NIL;
+    rights[node] = NIL;
+    parents[node] = NIL;
+    return node;
+  }
+
+  private void free(int node) {
+    lefts[node] = freeHead;
+    freeHead = node;
+  }
+
+  private void grow() {
+    var capacity = Math.max(16, keys.length * 2);
+    keys = Arrays.copyOf(keys, capacity);
+    priorities = Arrays.copyOf(priorities, capacity);
+    lefts = Arrays.copyOf(lefts, capacity);
+    rights = Arrays.copyOf(rights, capacity);
+    parents = Arrays.copyOf(parents, capacity);
+  }
+}
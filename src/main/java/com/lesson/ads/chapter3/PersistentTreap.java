@@ -0,0 +1,210 @@
+package com.lesson.ads.chapter3;
+
+import com.lesson.ads.chapter3.Treap.Entry;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+// Immutable treap: every update copies O(log n) nodes on the search path and shares the rest,
+// so an instance is a snapshot which can be read by any thread without locks.
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class PersistentTreap<K extends Comparable<K>, P extends Comparable<P>>
+    implements Iterable<Entry<K, P>> {
+
+  private final Comparator<P> priorityComparator;
+  private final Node<K, P> root;
+
+  public static <K extends Comparable<K>, P extends Comparable<P>> PersistentTreap<K, P> empty() {
+    return empty(Comparator.<P>naturalOrder());
+  }
+
+  public static <K extends Comparable<K>, P extends Comparable<P>> PersistentTreap<K, P> empty(
+      Comparator<P> priorityComparator) {
+    Objects.requireNonNull(priorityComparator);
+    return new PersistentTreap<>(priorityComparator, null);
+  }
+
+  public int size() {
+    return size(root);
+  }
+
+  public boolean isEmpty() {
+    return root == null;
+  }
+
+  public Optional<Entry<K, P>> getElement(K key) {
+    Objects.requireNonNull(key);
+
+    var node = root;
+    while (node != null && key.compareTo(node.key) != 0) {
+      node = key.compareTo(node.key) < 0 ? node.left : node.right;
+    }
+    return Optional.ofNullable(node)
+        .map(Node::entry);
+  }
+
+  public Optional<Entry<K, P>> getMinKeyElement() {
+    var node = root;
+    while (node != null && node.left != null) {
+      node = node.left;
+    }
+    return Optional.ofNullable(node)
+        .map(Node::entry);
+  }
+
+  public Optional<Entry<K, P>> getMaxKeyElement() {
+    var node = root;
+    while (node != null && node.right != null) {
+      node = node.right;
+    }
+    return Optional.ofNullable(node)
+        .map(Node::entry);
+  }
+
+  public Optional<Entry<K, P>> getTopPriorityElement() {
+    return Optional.ofNullable(root)
+        .map(Node::entry);
+  }
+
+  public PersistentTreap<K, P> put(K key, P priority) {
+    Objects.requireNonNull(key);
+    Objects.requireNonNull(priority);
+
+    return new PersistentTreap<>(priorityComparator, put(delete(root, key), key, priority));
+  }
+
+  public PersistentTreap<K, P> delete(K key) {
+    Objects.requireNonNull(key);
+
+    var newRoot = delete(root, key);
+    if (newRoot == root) {
+      throw new NoSuchElementException(String.format("Element not found: key=%s", key));
+    }
+    return new PersistentTreap<>(priorityComparator, newRoot);
+  }
+
+  // in-order iteration with explicit stack, nodes have no parent links
+  @Override
+  public Iterator<Entry<K, P>> iterator() {
+    var stack = new ArrayDeque<Node<K, P>>();
+    pushLeft(stack, root);
+    return new Iterator<>() {
+
+      @Override
+      public boolean hasNext() {
+        return !stack.isEmpty();
+      }
+
+      @Override
+      public Entry<K, P> next() {
+        if (stack.isEmpty()) {
+          throw new NoSuchElementException("No more elements");
+        }
+        var node = stack.pop();
+        pushLeft(stack, node.right);
+        return node.entry();
+      }
+    };
+  }
+
+  private static <K, P> void pushLeft(ArrayDeque<Node<K, P>> stack, Node<K, P> node) {
+    while (node != null) {
+      stack.push(node);
+      node = node.left;
+    }
+  }
+
+  private Node<K, P> put(Node<K, P> node, K key, P priority) {
+    if (node == null) {
+      return Node.of(key, priority, null, null);
+    }
+    if (priorityComparator.compare(priority, node.priority) < 0) {
+      var split = split(node, key);
+      return Node.of(key, priority, split.left, split.right);
+    }
+    if (key.compareTo(node.key) < 0) {
+      return node.withLeft(put(node.left, key, priority));
+    } else {
+      return node.withRight(put(node.right, key, priority));
+    }
+  }
+
+  // returns the same node when key is not present, so that nothing is copied
+  private Node<K, P> delete(Node<K, P> node, K key) {
+    if (node == null) {
+      return null;
+    }
+    var comparison = key.compareTo(node.key);
+    if (comparison == 0) {
+      return merge(node.left, node.right);
+    }
+    if (comparison < 0) {
+      var left = delete(node.left, key);
+      return left == node.left ? node : node.withLeft(left);
+    } else {
+      var right = delete(node.right, key);
+      return right == node.right ? node : node.withRight(right);
+    }
+  }
+
+  // key should not be present in subtree
+  private NodeSplit<K, P> split(Node<K, P> node, K key) {
+    if (node == null) {
+      return new NodeSplit<>(null, null);
+    }
+    if (key.compareTo(node.key) < 0) {
+      var split = split(node.left, key);
+      return new NodeSplit<>(split.left, node.withLeft(split.right));
+    } else {
+      var split = split(node.right, key);
+      return new NodeSplit<>(node.withRight(split.left), split.right);
+    }
+  }
+
+  private Node<K, P> merge(Node<K, P> left, Node<K, P> right) {
+    if (left == null) {
+      return right;
+    }
+    if (right == null) {
+      return left;
+    }
+    if (priorityComparator.compare(right.priority, left.priority) < 0) {
+      return right.withLeft(merge(left, right.left));
+    } else {
+      return left.withRight(merge(left.right, right));
+    }
+  }
+
+  private static int size(Node<?, ?> node) {
+    return node == null ? 0 : node.size;
+  }
+
+  private record Node<K, P>(K key, P priority, Node<K, P> left, Node<K, P> right, int size) {
+
+    static <K, P> Node<K, P> of(K key, P priority, Node<K, P> left, Node<K, P> right) {
+      return new Node<>(
+          key, priority, left, right, PersistentTreap.size(left) + PersistentTreap.size(right) + 1);
+    }
+
+    Node<K, P> withLeft(Node<K, P> left) {
+      return of(key, priority, left, right);
+    }
+
+    Node<K, P> withRight(Node<K, P> right) {
+      return of(key, priority, left, right);
+    }
+
+    Entry<K, P> entry() {
+      return new Entry<>(key, priority);
+    }
+  }
+
+  private record NodeSplit<K, P>(Node<K, P> left, Node<K, P> right) {
+
+  }
+}
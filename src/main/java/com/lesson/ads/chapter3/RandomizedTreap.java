@@ -1,13 +1,49 @@
 package com.lesson.ads.chapter3;
 
 import com.lesson.ads.chapter3.Treap.Entry;
+import java.util.Iterator;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Random;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
 
-public class RandomizedTreap<K extends Comparable<K>> {
+public class RandomizedTreap<K extends Comparable<K>> implements Iterable<K> {
 
-  private final Random random = new Random();
-  private final Treap<K, Double> treap = new Treap<>();
+  private final Random random;
+  private final Treap<K, Double> treap;
+
+  public RandomizedTreap() {
+    this(new Random(), new Treap<>());
+  }
+
+  private RandomizedTreap(Random random, Treap<K, Double> treap) {
+    this.random = random;
+    this.treap = treap;
+  }
+
+  // builds treap from strictly increasing keys in O(n)
+  public static <K extends Comparable<K>> RandomizedTreap<K> ofSorted(Iterable<K> sortedKeys) {
+    Objects.requireNonNull(sortedKeys);
+
+    var random = new Random();
+    Iterable<Entry<K, Double>> sortedEntries = () -> new Iterator<>() {
+
+      private final Iterator<K> keys = sortedKeys.iterator();
+
+      @Override
+      public boolean hasNext() {
+        return keys.hasNext();
+      }
+
+      @Override
+      public Entry<K, Double> next() {
+        return new Entry<>(keys.next(), random.nextDouble());
+      }
+    };
+    return new RandomizedTreap<>(random, Treap.ofSorted(sortedEntries));
+  }
 
   public Optional<K> get(K key) {
     return treap.getElement(key).map(Entry::key);
@@ -29,4 +65,37 @@ public class RandomizedTreap<K extends Comparable<K>> {
   public K delete(K key) {
     return treap.delete(key).key();
   }
+
+  public int size() {
+    return treap.size();
+  }
+
+  @Override
+  public Iterator<K> iterator() {
+    return Spliterators.iterator(spliterator());
+  }
+
+  @Override
+  public Spliterator<K> spliterator() {
+    return stream().spliterator();
+  }
+
+  public Stream<K> stream() {
+    return treap.stream().map(Entry::key);
+  }
+
+  // keys in range [from, to)
+  public Stream<K> range(K from, K to) {
+    return treap.range(from, to).map(Entry::key);
+  }
+
+  // keys less than to
+  public Stream<K> headRange(K to) {
+    return treap.headRange(to).map(Entry::key);
+  }
+
+  // keys not less than from
+  public Stream<K> tailRange(K from) {
+    return treap.tailRange(from).map(Entry::key);
+  }
 }
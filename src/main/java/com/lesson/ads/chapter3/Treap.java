@@ -1,23 +1,96 @@
 package com.lesson.ads.chapter3;
 
+import java.util.ArrayDeque;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 
-public class Treap<K extends Comparable<K>, P extends Comparable<P>> {
+public class Treap<K extends Comparable<K>, P extends Comparable<P>>
+    implements Iterable<Treap.Entry<K, P>> {
 
   private final Comparator<P> priorityComparator;
+  private final Aggregation<K, P, ?> aggregation;
   private TreapNode root;
 
   public Treap() {
-    this.priorityComparator = Comparator.naturalOrder();
+    this(Comparator.naturalOrder());
   }
 
   public Treap(Comparator<P> priorityComparator) {
+    this(priorityComparator, null);
+  }
+
+  public Treap(Comparator<P> priorityComparator, Aggregation<K, P, ?> aggregation) {
     this.priorityComparator = priorityComparator;
+    this.aggregation = aggregation;
+  }
+
+  public static <K extends Comparable<K>, P extends Comparable<P>> Treap<K, P> ofSorted(
+      Iterable<Entry<K, P>> sortedEntries) {
+    return ofSorted(sortedEntries, Comparator.naturalOrder(), null);
+  }
+
+  public static <K extends Comparable<K>, P extends Comparable<P>> Treap<K, P> ofSorted(
+      Iterable<Entry<K, P>> sortedEntries, Comparator<P> priorityComparator) {
+    return ofSorted(sortedEntries, priorityComparator, null);
+  }
+
+  // builds treap from entries with strictly increasing keys in O(n) without rotations
+  public static <K extends Comparable<K>, P extends Comparable<P>> Treap<K, P> ofSorted(
+      Iterable<Entry<K, P>> sortedEntries,
+      Comparator<P> priorityComparator,
+      Aggregation<K, P, ?> aggregation) {
+    Objects.requireNonNull(sortedEntries);
+
+    var treap = new Treap<K, P>(priorityComparator, aggregation);
+    treap.buildFromSorted(sortedEntries);
+    return treap;
+  }
+
+  // cartesian tree construction: stack holds the right spine, node popped from the stack
+  // will not get new descendants, so its size and aggregate are final
+  private void buildFromSorted(Iterable<Entry<K, P>> sortedEntries) {
+    var rightSpine = new ArrayDeque<TreapNode>();
+    K previousKey = null;
+    for (var entry : sortedEntries) {
+      requireNonNull(entry.key());
+      requireNonNull(entry.priority());
+      if (previousKey != null && previousKey.compareTo(entry.key()) >= 0) {
+        throw new IllegalArgumentException(String.format(
+            "Keys should be strictly increasing: previous=%s, key=%s", previousKey, entry.key()));
+      }
+      previousKey = entry.key();
+
+      var node = new TreapNode(entry.key(), entry.priority());
+      TreapNode lastPopped = null;
+      while (!rightSpine.isEmpty() && lessPriority(node, rightSpine.peek())) {
+        lastPopped = rightSpine.pop();
+        lastPopped.update();
+      }
+      node.setLeft(lastPopped);
+      if (!rightSpine.isEmpty()) {
+        rightSpine.peek().setRight(node);
+      }
+      rightSpine.push(node);
+    }
+    TreapNode spineRoot = null;
+    while (!rightSpine.isEmpty()) {
+      spineRoot = rightSpine.pop();
+      spineRoot.update();
+    }
+    setRoot(spineRoot);
   }
 
   public TreapNode asNodes() {
@@ -92,6 +165,7 @@ public class Treap<K extends Comparable<K>, P extends Comparable<P>> {
       parent = node;
       if (key.compareTo(node.key) == 0) {
         node.priority = priority;
+        updateToRoot(node);
         popUp(node);
         pushDown(node);
         return new Entry<>(key, priority);
@@ -106,6 +180,7 @@ public class Treap<K extends Comparable<K>, P extends Comparable<P>> {
     } else {
       var child = new TreapNode(key, priority);
       parent.setChild(child);
+      updateToRoot(parent);
       popUp(child);
     }
     return new Entry<>(key, priority);
@@ -123,10 +198,373 @@ public class Treap<K extends Comparable<K>, P extends Comparable<P>> {
         rotateLeft(node.right);
       }
     }
-    node.parent.deleteChild(node);
+    if (node.hasParent()) {
+      node.parent.deleteChild(node);
+      updateToRoot(node.parent);
+    } else {
+      root = null;
+    }
     return new Entry<>(node.key, node.priority);
   }
 
+  public int size() {
+    return size(root);
+  }
+
+  // number of keys less than key
+  public int rank(K key) {
+    requireNonNull(key);
+
+    var rank = 0;
+    var node = root;
+    while (node != null) {
+      if (key.compareTo(node.key) <= 0) {
+        node = node.left;
+      } else {
+        rank += size(node.left) + 1;
+        node = node.right;
+      }
+    }
+    return rank;
+  }
+
+  // element with k-th smallest key, k starts from 0
+  public Optional<Entry<K, P>> select(int k) {
+    var node = root;
+    var index = k;
+    while (node != null) {
+      var leftSize = size(node.left);
+      if (index < leftSize) {
+        node = node.left;
+      } else if (index > leftSize) {
+        index -= leftSize + 1;
+        node = node.right;
+      } else {
+        break;
+      }
+    }
+    return Optional.ofNullable(k < 0 ? null : node)
+        .map(nd -> new Entry<>(nd.key, nd.priority));
+  }
+
+  // number of keys in range [from, to)
+  public int countRange(K from, K to) {
+    validateRange(from, to);
+    return rank(to) - rank(from);
+  }
+
+  // aggregate of elements with keys in range [from, to) combined in key order
+  @SuppressWarnings("unchecked")
+  public <A> A aggregateRange(K from, K to) {
+    validateRange(from, to);
+    if (aggregation == null) {
+      throw new IllegalStateException("Treap is created without aggregation");
+    }
+
+    var node = root;
+    while (node != null && (node.key.compareTo(from) < 0 || node.key.compareTo(to) >= 0)) {
+      node = node.key.compareTo(from) < 0 ? node.right : node.left;
+    }
+    if (node == null) {
+      return (A) aggregation.identity();
+    }
+    // keys not less than from in left subtree, combined right to left
+    var leftAggregate = aggregation.identity();
+    var leftNode = node.left;
+    while (leftNode != null) {
+      if (leftNode.key.compareTo(from) >= 0) {
+        leftAggregate = combine(
+            combine(leftNode.value(), aggregate(leftNode.right)), leftAggregate);
+        leftNode = leftNode.left;
+      } else {
+        leftNode = leftNode.right;
+      }
+    }
+    // keys less than to in right subtree, combined left to right
+    var rightAggregate = aggregation.identity();
+    var rightNode = node.right;
+    while (rightNode != null) {
+      if (rightNode.key.compareTo(to) < 0) {
+        rightAggregate = combine(
+            rightAggregate, combine(aggregate(rightNode.left), rightNode.value()));
+        rightNode = rightNode.right;
+      } else {
+        rightNode = rightNode.left;
+      }
+    }
+    return (A) combine(combine(leftAggregate, node.value()), rightAggregate);
+  }
+
+  // lazy in-order iteration, modification of treap during iteration is not supported
+  @Override
+  public Iterator<Entry<K, P>> iterator() {
+    return Spliterators.iterator(spliterator());
+  }
+
+  @Override
+  public Spliterator<Entry<K, P>> spliterator() {
+    return new TreapSpliterator(ceilingNode(null), null);
+  }
+
+  public Stream<Entry<K, P>> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  // elements with keys in range [from, to)
+  public Stream<Entry<K, P>> range(K from, K to) {
+    validateRange(from, to);
+    return StreamSupport.stream(new TreapSpliterator(ceilingNode(from), to), false);
+  }
+
+  // elements with keys less than to
+  public Stream<Entry<K, P>> headRange(K to) {
+    requireNonNull(to);
+    return StreamSupport.stream(new TreapSpliterator(ceilingNode(null), to), false);
+  }
+
+  // elements with keys not less than from
+  public Stream<Entry<K, P>> tailRange(K from) {
+    requireNonNull(from);
+    return StreamSupport.stream(new TreapSpliterator(ceilingNode(from), null), false);
+  }
+
+  // node with the least key not less than key, null key means the least key
+  private TreapNode ceilingNode(K key) {
+    TreapNode ceiling = null;
+    var node = root;
+    while (node != null) {
+      if (key == null || key.compareTo(node.key) <= 0) {
+        ceiling = node;
+        node = node.left;
+      } else {
+        node = node.right;
+      }
+    }
+    return ceiling;
+  }
+
+  private TreapNode successor(TreapNode node) {
+    if (node.hasRight()) {
+      var successor = node.right;
+      while (successor.hasLeft()) {
+        successor = successor.left;
+      }
+      return successor;
+    }
+    while (node.hasParent() && !node.parent.hasLeft(node)) {
+      node = node.parent;
+    }
+    return node.parent;
+  }
+
+  // keys less than key go to left treap, other keys go to right treap, this treap becomes empty
+  public Split<K, P> split(K key) {
+    requireNonNull(key);
+
+    var nodeSplit = split(root, key);
+    var left = new Treap<K, P>(priorityComparator, aggregation);
+    var right = new Treap<K, P>(priorityComparator, aggregation);
+    left.setRoot(nodeSplit.less);
+    right.setRoot(merge(nodeSplit.equal, nodeSplit.greater));
+    root = null;
+    return new Split<>(left, right);
+  }
+
+  // keys of that treap should be all less or all greater than keys of this treap,
+  // that treap becomes empty
+  public void merge(Treap<K, P> that) {
+    validateCompatible(that);
+    if (that.root == null) {
+      return;
+    }
+    if (root == null) {
+      setRoot(that.root);
+    } else if (maxKey(root).compareTo(minKey(that.root)) < 0) {
+      setRoot(merge(root, that.root));
+    } else if (maxKey(that.root).compareTo(minKey(root)) < 0) {
+      setRoot(merge(that.root, root));
+    } else {
+      throw new IllegalArgumentException("Treaps key ranges should not overlap");
+    }
+    that.root = null;
+  }
+
+  // deletes keys in range [from, to) and returns them as a separate treap
+  public Treap<K, P> deleteRange(K from, K to) {
+    validateRange(from, to);
+
+    var fromSplit = split(root, from);
+    var toSplit = split(merge(fromSplit.equal, fromSplit.greater), to);
+    var deleted = new Treap<K, P>(priorityComparator, aggregation);
+    deleted.setRoot(toSplit.less);
+    setRoot(merge(fromSplit.less, merge(toSplit.equal, toSplit.greater)));
+    return deleted;
+  }
+
+  // on key collision element with higher priority is kept, that treap becomes empty
+  public void union(Treap<K, P> that) {
+    validateCompatible(that);
+    setRoot(union(root, that.root));
+    that.root = null;
+  }
+
+  // on key collision element with higher priority is kept, that treap becomes empty
+  public void intersection(Treap<K, P> that) {
+    validateCompatible(that);
+    setRoot(intersection(root, that.root));
+    that.root = null;
+  }
+
+  // keeps elements which keys are not present in that treap, that treap becomes empty
+  public void difference(Treap<K, P> that) {
+    validateCompatible(that);
+    setRoot(difference(root, that.root));
+    that.root = null;
+  }
+
+  private NodeSplit split(TreapNode node, K key) {
+    if (node == null) {
+      return new NodeSplit(null, null, null);
+    }
+    var comparison = key.compareTo(node.key);
+    if (comparison == 0) {
+      var nodeSplit = new NodeSplit(node.left, node, node.right);
+      node.setLeft(null);
+      node.setRight(null);
+      return nodeSplit;
+    } else if (comparison > 0) {
+      var nodeSplit = split(node.right, key);
+      node.setRight(nodeSplit.less);
+      return new NodeSplit(node, nodeSplit.equal, nodeSplit.greater);
+    } else {
+      var nodeSplit = split(node.left, key);
+      node.setLeft(nodeSplit.greater);
+      return new NodeSplit(nodeSplit.less, nodeSplit.equal, node);
+    }
+  }
+
+  // all keys of left subtree should be less than keys of right subtree
+  private TreapNode merge(TreapNode left, TreapNode right) {
+    if (left == null) {
+      return right;
+    }
+    if (right == null) {
+      return left;
+    }
+    if (lessPriority(right, left)) {
+      right.setLeft(merge(left, right.left));
+      return right;
+    } else {
+      left.setRight(merge(left.right, right));
+      return left;
+    }
+  }
+
+  private TreapNode union(TreapNode left, TreapNode right) {
+    if (left == null) {
+      return right;
+    }
+    if (right == null) {
+      return left;
+    }
+    if (lessPriority(right, left)) {
+      return union(right, left);
+    }
+    var nodeSplit = split(right, left.key);
+    left.setLeft(union(left.left, nodeSplit.less));
+    left.setRight(union(left.right, nodeSplit.greater));
+    return left;
+  }
+
+  private TreapNode intersection(TreapNode left, TreapNode right) {
+    if (left == null || right == null) {
+      return null;
+    }
+    if (lessPriority(right, left)) {
+      return intersection(right, left);
+    }
+    var nodeSplit = split(right, left.key);
+    var leftIntersection = intersection(left.left, nodeSplit.less);
+    var rightIntersection = intersection(left.right, nodeSplit.greater);
+    if (nodeSplit.equal == null) {
+      return merge(leftIntersection, rightIntersection);
+    }
+    left.setLeft(leftIntersection);
+    left.setRight(rightIntersection);
+    return left;
+  }
+
+  private TreapNode difference(TreapNode left, TreapNode right) {
+    if (left == null || right == null) {
+      return left;
+    }
+    var nodeSplit = split(right, left.key);
+    var leftDifference = difference(left.left, nodeSplit.less);
+    var rightDifference = difference(left.right, nodeSplit.greater);
+    if (nodeSplit.equal != null) {
+      return merge(leftDifference, rightDifference);
+    }
+    left.setLeft(leftDifference);
+    left.setRight(rightDifference);
+    return left;
+  }
+
+  private K minKey(TreapNode node) {
+    while (node.hasLeft()) {
+      node = node.left;
+    }
+    return node.key;
+  }
+
+  private K maxKey(TreapNode node) {
+    while (node.hasRight()) {
+      node = node.right;
+    }
+    return node.key;
+  }
+
+  private void validateRange(K from, K to) {
+    requireNonNull(from);
+    requireNonNull(to);
+    if (from.compareTo(to) > 0) {
+      throw new IllegalArgumentException(
+          String.format("Parameter from should not be greater than to: from=%s, to=%s", from, to));
+    }
+  }
+
+  private int size(TreapNode node) {
+    return node == null ? 0 : node.size;
+  }
+
+  private Object aggregate(TreapNode node) {
+    return node == null ? aggregation.identity() : node.aggregate;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Object combine(Object left, Object right) {
+    return ((Aggregation<K, P, Object>) aggregation).combiner().apply(left, right);
+  }
+
+  private void updateToRoot(TreapNode node) {
+    while (node != null) {
+      node.update();
+      node = node.parent;
+    }
+  }
+
+  private void validateCompatible(Treap<K, P> that) {
+    requireNonNull(that);
+    if (that == this) {
+      throw new IllegalArgumentException("Treap cannot be combined with itself");
+    }
+    if (!priorityComparator.equals(that.priorityComparator)) {
+      throw new IllegalArgumentException("Treaps should have the same priority comparator");
+    }
+    if (!Objects.equals(aggregation, that.aggregation)) {
+      throw new IllegalArgumentException("Treaps should have the same aggregation");
+    }
+  }
+
   private Optional<TreapNode> nodeOpt(K key) {
     var node = root;
     while (node != null) {
@@ -183,6 +621,8 @@ public class Treap<K extends Comparable<K>, P extends Comparable<P>> {
       }
       parent.parent = node;
       node.left = parent;
+      parent.update();
+      node.update();
     }
   }
 
@@ -200,12 +640,16 @@ public class Treap<K extends Comparable<K>, P extends Comparable<P>> {
       }
       parent.parent = node;
       node.right = parent;
+      parent.update();
+      node.update();
     }
   }
 
   private void setRoot(TreapNode node) {
     root = node;
-    node.parent = null;
+    if (node != null) {
+      node.parent = null;
+    }
   }
 
   private void requireNonNull(Object object) {
@@ -220,6 +664,98 @@ public class Treap<K extends Comparable<K>, P extends Comparable<P>> {
 
   }
 
+  // monoid used to aggregate elements mapped to values, combiner should be associative
+  public static record Aggregation<K, P, A>(
+      A identity,
+      BiFunction<K, P, A> mapper,
+      BinaryOperator<A> combiner) {
+
+  }
+
+  public static record Split<K extends Comparable<K>, P extends Comparable<P>>(
+      Treap<K, P> left,
+      Treap<K, P> right) {
+
+  }
+
+  // splits range at the highest node inside the range, so halves are balanced as the treap is
+  private class TreapSpliterator implements Spliterator<Entry<K, P>> {
+
+    private TreapNode next;
+    private final K to;
+    private long remaining;
+
+    TreapSpliterator(TreapNode next, K to) {
+      this.next = next;
+      this.to = to;
+      this.remaining = next == null ? 0 : (to == null ? size() : rank(to)) - rank(next.key);
+    }
+
+    private TreapSpliterator(TreapNode next, K to, long remaining) {
+      this.next = next;
+      this.to = to;
+      this.remaining = remaining;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Entry<K, P>> action) {
+      if (remaining <= 0) {
+        return false;
+      }
+      action.accept(new Entry<>(next.key, next.priority));
+      next = successor(next);
+      remaining--;
+      return true;
+    }
+
+    @Override
+    public Spliterator<Entry<K, P>> trySplit() {
+      if (remaining < 2) {
+        return null;
+      }
+      var middle = root;
+      while (middle != null) {
+        if (middle.key.compareTo(next.key) <= 0) {
+          middle = middle.right;
+        } else if (to != null && middle.key.compareTo(to) >= 0) {
+          middle = middle.left;
+        } else {
+          break;
+        }
+      }
+      if (middle == null) {
+        return null;
+      }
+      var prefix = new TreapSpliterator(next, middle.key, rank(middle.key) - rank(next.key));
+      next = middle;
+      remaining -= prefix.remaining;
+      return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+      return remaining;
+    }
+
+    @Override
+    public int characteristics() {
+      return ORDERED | SORTED | DISTINCT | NONNULL | SIZED | SUBSIZED;
+    }
+
+    @Override
+    public Comparator<? super Entry<K, P>> getComparator() {
+      return Comparator.comparing(Entry::key);
+    }
+  }
+
+  @RequiredArgsConstructor
+  private class NodeSplit {
+
+    private final TreapNode less;
+    private final TreapNode equal;
+    private final TreapNode greater;
+  }
+
   @Getter
   public class TreapNode {
 
@@ -229,10 +765,13 @@ public class Treap<K extends Comparable<K>, P extends Comparable<P>> {
     private TreapNode left;
     private TreapNode right;
     private TreapNode parent;
+    private int size;
+    private Object aggregate;
 
     public TreapNode(K key, P priority) {
       this.key = key;
       this.priority = priority;
+      update();
     }
 
     @Override
@@ -274,6 +813,22 @@ public class Treap<K extends Comparable<K>, P extends Comparable<P>> {
       }
     }
 
+    void setLeft(TreapNode child) {
+      left = child;
+      if (child != null) {
+        child.parent = this;
+      }
+      update();
+    }
+
+    void setRight(TreapNode child) {
+      right = child;
+      if (child != null) {
+        child.parent = this;
+      }
+      update();
+    }
+
     void deleteChild(TreapNode child) {
       if (left == child) {
         left = null;
@@ -282,6 +837,17 @@ public class Treap<K extends Comparable<K>, P extends Comparable<P>> {
       }
     }
 
+    void update() {
+      size = size(left) + size(right) + 1;
+      if (aggregation != null) {
+        aggregate = combine(combine(aggregate(left), value()), aggregate(right));
+      }
+    }
+
+    Object value() {
+      return aggregation.mapper().apply(key, priority);
+    }
+
     TreapNode copy() {
       var node = new TreapNode(key, priority);
       if (hasLeft()) {
@@ -292,6 +858,8 @@ public class Treap<K extends Comparable<K>, P extends Comparable<P>> {
         node.right = this.right.copy();
         node.right.parent = node;
       }
+      node.size = size;
+      node.aggregate = aggregate;
       return node;
     }
   }
@@ -1,42 +1,202 @@
 package com.lesson.ads.chapter4;
 
 import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
 import java.util.stream.Collectors;
 
-public class BitSet {
+public class BitSet implements BitVector {
 
-  private final int size;
+  // words are addressed by int index
+  private static final long MAX_SIZE = 64L * Integer.MAX_VALUE;
+
+  private final long size;
   private final long[] words;
 
   public BitSet(int size) {
+    this((long) size);
+  }
+
+  public BitSet(long size) {
     validateSize(size);
     this.size = size;
     var numberOfWords = wordIndex(size - 1) + 1;
     words = new long[numberOfWords];
   }
 
-  public void set(int bitIndex) {
+  @Override
+  public void set(long bitIndex) {
     validateBitIndex(bitIndex);
     var wordIndex = wordIndex(bitIndex);
     words[wordIndex] |= (1L << bitIndex);
   }
 
-  public void unset(int bitIndex) {
+  @Override
+  public void unset(long bitIndex) {
     validateBitIndex(bitIndex);
     var wordIndex = wordIndex(bitIndex);
     words[wordIndex] &= ~(1L << bitIndex);
   }
 
-  public boolean get(int bitIndex) {
+  @Override
+  public boolean get(long bitIndex) {
     validateBitIndex(bitIndex);
     var wordIndex = wordIndex(bitIndex);
     return (words[wordIndex] & (1L << bitIndex)) != 0;
   }
 
-  public int size() {
+  // sets bits in range [fromIndex, toIndex)
+  public void set(long fromIndex, long toIndex) {
+    validateRange(fromIndex, toIndex);
+    if (fromIndex == toIndex) {
+      return;
+    }
+    var fromWordIndex = wordIndex(fromIndex);
+    var toWordIndex = wordIndex(toIndex - 1);
+    // shift distances are taken modulo 64, so -1L >>> -toIndex keeps bits below toIndex
+    var fromWordMask = -1L << fromIndex;
+    var toWordMask = -1L >>> -toIndex;
+    if (fromWordIndex == toWordIndex) {
+      words[fromWordIndex] |= (fromWordMask & toWordMask);
+      return;
+    }
+    words[fromWordIndex] |= fromWordMask;
+    for (int wordIndex = fromWordIndex + 1; wordIndex < toWordIndex; wordIndex++) {
+      words[wordIndex] = -1L;
+    }
+    words[toWordIndex] |= toWordMask;
+  }
+
+  // unsets bits in range [fromIndex, toIndex)
+  public void unset(long fromIndex, long toIndex) {
+    validateRange(fromIndex, toIndex);
+    if (fromIndex == toIndex) {
+      return;
+    }
+    var fromWordIndex = wordIndex(fromIndex);
+    var toWordIndex = wordIndex(toIndex - 1);
+    var fromWordMask = -1L << fromIndex;
+    var toWordMask = -1L >>> -toIndex;
+    if (fromWordIndex == toWordIndex) {
+      words[fromWordIndex] &= ~(fromWordMask & toWordMask);
+      return;
+    }
+    words[fromWordIndex] &= ~fromWordMask;
+    for (int wordIndex = fromWordIndex + 1; wordIndex < toWordIndex; wordIndex++) {
+      words[wordIndex] = 0L;
+    }
+    words[toWordIndex] &= ~toWordMask;
+  }
+
+  public void and(BitSet that) {
+    validateSameSize(that);
+    for (int wordIndex = 0; wordIndex < words.length; wordIndex++) {
+      words[wordIndex] &= that.words[wordIndex];
+    }
+  }
+
+  public void or(BitSet that) {
+    validateSameSize(that);
+    for (int wordIndex = 0; wordIndex < words.length; wordIndex++) {
+      words[wordIndex] |= that.words[wordIndex];
+    }
+  }
+
+  public void xor(BitSet that) {
+    validateSameSize(that);
+    for (int wordIndex = 0; wordIndex < words.length; wordIndex++) {
+      words[wordIndex] ^= that.words[wordIndex];
+    }
+  }
+
+  public void andNot(BitSet that) {
+    validateSameSize(that);
+    for (int wordIndex = 0; wordIndex < words.length; wordIndex++) {
+      words[wordIndex] &= ~that.words[wordIndex];
+    }
+  }
+
+  // number of set bits, throws ArithmeticException if it exceeds Integer.MAX_VALUE
+  public int cardinality() {
+    return Math.toIntExact(bitCount());
+  }
+
+  // number of set bits
+  public long bitCount() {
+    var cardinality = 0L;
+    for (var word : words) {
+      cardinality += Long.bitCount(word);
+    }
+    return cardinality;
+  }
+
+  // index of the first set bit not less than fromIndex, -1 if there is no such bit
+  public int nextSetBit(int fromIndex) {
+    return Math.toIntExact(nextSetBit((long) fromIndex));
+  }
+
+  public long nextSetBit(long fromIndex) {
+    validateFromIndex(fromIndex);
+    if (fromIndex >= size) {
+      return -1;
+    }
+    var wordIndex = wordIndex(fromIndex);
+    var word = words[wordIndex] & (-1L << fromIndex);
+    while (word == 0) {
+      if (++wordIndex == words.length) {
+        return -1;
+      }
+      word = words[wordIndex];
+    }
+    return ((long) wordIndex << 6) + Long.numberOfTrailingZeros(word);
+  }
+
+  // index of the first unset bit not less than fromIndex, -1 if there is no such bit
+  public int nextClearBit(int fromIndex) {
+    return Math.toIntExact(nextClearBit((long) fromIndex));
+  }
+
+  public long nextClearBit(long fromIndex) {
+    validateFromIndex(fromIndex);
+    if (fromIndex >= size) {
+      return -1;
+    }
+    var wordIndex = wordIndex(fromIndex);
+    var word = ~words[wordIndex] & (-1L << fromIndex);
+    while (word == 0) {
+      if (++wordIndex == words.length) {
+        return -1;
+      }
+      word = ~words[wordIndex];
+    }
+    var bitIndex = ((long) wordIndex << 6) + Long.numberOfTrailingZeros(word);
+    return bitIndex < size ? bitIndex : -1;
+  }
+
+  // visits set bits in increasing order without copying words, throws ArithmeticException on the
+  // first bit index exceeding Integer.MAX_VALUE
+  public void forEachSetBit(IntConsumer consumer) {
+    forEachSetBitIndex(bitIndex -> consumer.accept(Math.toIntExact(bitIndex)));
+  }
+
+  // same as forEachSetBit for bit sets larger than Integer.MAX_VALUE bits
+  public void forEachSetBitIndex(LongConsumer consumer) {
+    for (int wordIndex = 0; wordIndex < words.length; wordIndex++) {
+      var word = words[wordIndex];
+      while (word != 0) {
+        consumer.accept(((long) wordIndex << 6) + Long.numberOfTrailingZeros(word));
+        // clear the lowest set bit
+        word &= word - 1;
+      }
+    }
+  }
+
+  @Override
+  public long bitSize() {
     return size;
   }
 
+  @Override
   public long[] words() {
     return Arrays.copyOf(words, words.length);
   }
@@ -59,22 +219,44 @@ public class BitSet {
     return stringBuilder.toString();
   }
 
-  private void validateSize(int size) {
-    if (size < 1) {
+  private void validateSize(long size) {
+    if (size < 1 || size > MAX_SIZE) {
       throw new IllegalArgumentException(
-          String.format("Size should be positive: size=%s", size));
+          String.format("Size should be in range: size=%s, [1, %s]", size, MAX_SIZE));
     }
   }
 
-  private void validateBitIndex(int bitIndex) {
+  private void validateBitIndex(long bitIndex) {
     if (bitIndex < 0 || bitIndex >= size) {
       throw new IllegalArgumentException(
           String.format("Bit index should be in range: bitIndex=%s, [0, %s]", bitIndex, size - 1));
     }
   }
 
-  private int wordIndex(int bitIndex) {
+  private void validateRange(long fromIndex, long toIndex) {
+    if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+      throw new IllegalArgumentException(String.format(
+          "Bit range should be in range: fromIndex=%s, toIndex=%s, [0, %s]",
+          fromIndex, toIndex, size));
+    }
+  }
+
+  private void validateFromIndex(long fromIndex) {
+    if (fromIndex < 0) {
+      throw new IllegalArgumentException(
+          String.format("From index should not be negative: fromIndex=%s", fromIndex));
+    }
+  }
+
+  private void validateSameSize(BitSet that) {
+    if (that.size != size) {
+      throw new IllegalArgumentException(String.format(
+          "Bit sets should have the same size: size=%s, thatSize=%s", size, that.size));
+    }
+  }
+
+  private int wordIndex(long bitIndex) {
     // divide by 64
-    return bitIndex >> 6;
+    return (int) (bitIndex >>> 6);
   }
 }
\ No newline at end of file
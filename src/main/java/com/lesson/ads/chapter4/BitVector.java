@@ -0,0 +1,21 @@
+package com.lesson.ads.chapter4;
+
+// Fixed size sequence of bits, lets bloom filter work over heap and memory-mapped storage.
+public interface BitVector {
+
+  void set(long bitIndex);
+
+  void unset(long bitIndex);
+
+  boolean get(long bitIndex);
+
+  // number of bits, may exceed Integer.MAX_VALUE
+  long bitSize();
+
+  // throws ArithmeticException if number of bits exceeds Integer.MAX_VALUE
+  default int size() {
+    return Math.toIntExact(bitSize());
+  }
+
+  long[] words();
+}
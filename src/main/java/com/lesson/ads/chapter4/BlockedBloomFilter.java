@@ -0,0 +1,105 @@
+package com.lesson.ads.chapter4;
+
+import com.lesson.ads.chapter4.BloomFilter.BloomFilterApproximator;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+// Bloom filter which bits are split into 512-bit blocks of 8 words (one 64-byte cache line),
+// h1 selects the block and all bits of a key are set inside it, so a probe misses cache at most
+// once. i-th bit goes to word i mod 8 at position taken from the top 6 bits of h2 * SALTS[i],
+// which keeps probe loop free of branches and dependent loads.
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class BlockedBloomFilter {
+
+  private static final int WORDS_PER_BLOCK = 8;
+  private static final int BITS_PER_BLOCK = 64 * WORDS_PER_BLOCK;
+  // odd multipliers, each gives an independent bit position from the same h2
+  private static final long[] SALTS = {
+      0x47b6137b44974d91L, 0x8824ad5ba2b7289dL, 0x705495c72df1424bL, 0x9efc49475c6bfb31L,
+      0x9e3779b97f4a7c15L, 0xbf58476d1ce4e5b9L, 0x94d049bb133111ebL, 0xc2b2ae3d27d4eb4fL,
+      0x165667b19e3779f9L, 0xd6e8feb86659fd93L, 0xff51afd7ed558ccdL, 0xc4ceb9fe1a85ec53L,
+      0x87c37b91114253d5L, 0x4cf5ad432745937fL, 0x2127599bf4325c37L, 0x880355f21e6d1965L};
+  private static final int MAX_NUMBER_OF_BIT_HASH_FUNCTIONS = SALTS.length;
+  private static final long MAX_NUMBER_OF_BLOCKS = Integer.MAX_VALUE / WORDS_PER_BLOCK;
+
+  private final long[] words;
+  private final int numberOfBlocks;
+  private final int numberOfBitHashFunctions;
+  private final int seed;
+
+  // number of bits is rounded up to the whole number of blocks
+  public static BlockedBloomFilter create(
+      long numberOfBits, int numberOfBitHashFunctions, int seed) {
+    BloomFilter.validateNumberOfBits(numberOfBits);
+    validateNumberOfBitHashFunctions(numberOfBitHashFunctions);
+    var numberOfBlocks = (numberOfBits + BITS_PER_BLOCK - 1) / BITS_PER_BLOCK;
+    if (numberOfBlocks > MAX_NUMBER_OF_BLOCKS) {
+      throw new IllegalArgumentException(String.format(
+          "Number of bits should not exceed: numberOfBits=%s, %s",
+          numberOfBits, MAX_NUMBER_OF_BLOCKS * BITS_PER_BLOCK));
+    }
+    return new BlockedBloomFilter(new long[(int) numberOfBlocks * WORDS_PER_BLOCK],
+        (int) numberOfBlocks, numberOfBitHashFunctions, seed);
+  }
+
+  // keys are not spread evenly over blocks, so false positive rate is somewhat higher than the
+  // one of BloomFilter of the same size
+  public static BlockedBloomFilter approximate(
+      int seed, double precision, long expectedNumberOfKeys) {
+    BloomFilter.validatePrecision(precision);
+    BloomFilter.validateExpectedNumberOfKeys(expectedNumberOfKeys);
+    var bloomFilterApproximator = new BloomFilterApproximator();
+    var numberOfBits = bloomFilterApproximator
+        .approximateNumberOfBits(precision, expectedNumberOfKeys);
+    var numberOfBitHashFunctions = bloomFilterApproximator
+        .approximateNumberOfBitHashFunctions(precision);
+    return create(Math.max(numberOfBits, 1), Math.min(Math.max(numberOfBitHashFunctions, 1),
+        MAX_NUMBER_OF_BIT_HASH_FUNCTIONS), seed);
+  }
+
+  private static void validateNumberOfBitHashFunctions(int numberOfBitHashFunctions) {
+    if (numberOfBitHashFunctions < 1
+        || numberOfBitHashFunctions > MAX_NUMBER_OF_BIT_HASH_FUNCTIONS) {
+      throw new IllegalArgumentException(String.format(
+          "Number of bit hash functions should be in range: numberOfBitHashFunctions=%s, [1, %s]",
+          numberOfBitHashFunctions, MAX_NUMBER_OF_BIT_HASH_FUNCTIONS));
+    }
+  }
+
+  public void add(byte[] key) {
+    BloomFilter.validateKey(key);
+    var hash = BloomFilter.hash(key, seed);
+    var block = blockIndex(hash[0]) * WORDS_PER_BLOCK;
+    for (int index = 0; index < numberOfBitHashFunctions; index++) {
+      words[block + (index & 7)] |= 1L << ((hash[1] * SALTS[index]) >>> 58);
+    }
+  }
+
+  public boolean contains(byte[] key) {
+    BloomFilter.validateKey(key);
+    var hash = BloomFilter.hash(key, seed);
+    var block = blockIndex(hash[0]) * WORDS_PER_BLOCK;
+    // bits required by the key but unset in the block, accumulated without early exit
+    var missingBits = 0L;
+    for (int index = 0; index < numberOfBitHashFunctions; index++) {
+      missingBits |= (1L << ((hash[1] * SALTS[index]) >>> 58)) & ~words[block + (index & 7)];
+    }
+    return missingBits == 0;
+  }
+
+  public long numberOfBits() {
+    return (long) numberOfBlocks * BITS_PER_BLOCK;
+  }
+
+  public int numberOfBlocks() {
+    return numberOfBlocks;
+  }
+
+  public int numberOfBitHashFunctions() {
+    return numberOfBitHashFunctions;
+  }
+
+  private int blockIndex(long hash) {
+    return (int) ((hash & Long.MAX_VALUE) % numberOfBlocks);
+  }
+}
@@ -1,34 +1,84 @@
 package com.lesson.ads.chapter4;
 
-import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
 
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 public class BloomFilter {
 
-  private final BitSet bitSet;
-  private final List<BitHashFunction> bitHashFunctions;
+  // file header: magic, version, number of bits, number of bit hash functions, seed
+  private static final int MAGIC = 0x424C4D46;
+  private static final int VERSION = 2;
+  private static final int HEADER_SIZE = 24;
+  // keys hashed per pass of batch operations, bounds the scratch array of bit indexes
+  private static final int BATCH_SIZE = 256;
+  private static final int SAVE_BUFFER_SIZE = 1 << 16;
 
-  public static BloomFilter create(int numberOfBits, int numberOfBitHashFunctions, int seed) {
+  private final BitVector bitSet;
+  private final int numberOfBitHashFunctions;
+  private final int seed;
+
+  public static BloomFilter create(long numberOfBits, int numberOfBitHashFunctions, int seed) {
     validateNumberOfBits(numberOfBits);
     validateNumberOfBitHashFunctions(numberOfBitHashFunctions);
-    return new BloomFilter(new BitSet(numberOfBits),
-        bitHashFunctions(numberOfBits, numberOfBitHashFunctions, seed));
+    return new BloomFilter(new BitSet(numberOfBits), numberOfBitHashFunctions, seed);
+  }
+
+  // maps filter saved to the file, bits are paged in by the OS on access and added keys are
+  // written back to the file
+  @SneakyThrows
+  public static BloomFilter open(Path path) {
+    Objects.requireNonNull(path);
+    long numberOfBits;
+    int numberOfBitHashFunctions;
+    int seed;
+    try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      var header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+      if (channel.size() >= HEADER_SIZE) {
+        while (header.hasRemaining()) {
+          channel.read(header, header.position());
+        }
+      }
+      if (header.hasRemaining() || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+        throw new IllegalArgumentException(
+            String.format("File is not a bloom filter: path=%s", path));
+      }
+      numberOfBits = header.getLong(8);
+      numberOfBitHashFunctions = header.getInt(16);
+      seed = header.getInt(20);
+      validateNumberOfBits(numberOfBits);
+      validateNumberOfBitHashFunctions(numberOfBitHashFunctions);
+      var expectedFileSize = HEADER_SIZE + MappedBitSet.sizeInBytes(numberOfBits);
+      if (channel.size() != expectedFileSize) {
+        throw new IllegalArgumentException(String.format(
+            "Unexpected bloom filter file size: size=%s, expectedSize=%s",
+            channel.size(), expectedFileSize));
+      }
+    }
+    return new BloomFilter(MappedBitSet.map(path, HEADER_SIZE, numberOfBits),
+        numberOfBitHashFunctions, seed);
   }
 
-  private static void validateNumberOfBits(int numberOfBits) {
+  static void validateNumberOfBits(long numberOfBits) {
     if (numberOfBits < 1) {
       throw new IllegalArgumentException(String.format(
           "Number of bits should be positive: numberOfBits=%s", numberOfBits));
     }
   }
 
-  private static void validateNumberOfBitHashFunctions(int numberOfBitHashFunctions) {
+  static void validateNumberOfBitHashFunctions(int numberOfBitHashFunctions) {
     if (numberOfBitHashFunctions < 1) {
       throw new IllegalArgumentException(String.format(
           "Number of bit hash functions should be positive: numberOfBits=%s",
@@ -36,7 +86,7 @@ public class BloomFilter {
     }
   }
 
-  public static BloomFilter approximate(int seed, double precision, int expectedNumberOfKeys) {
+  public static BloomFilter approximate(int seed, double precision, long expectedNumberOfKeys) {
     validatePrecision(precision);
     validateExpectedNumberOfKeys(expectedNumberOfKeys);
     var bloomFilterApproximator = new BloomFilterApproximator();
@@ -44,11 +94,10 @@ public class BloomFilter {
         .approximateNumberOfBits(precision, expectedNumberOfKeys);
     var numberOfBitHashFunctions = bloomFilterApproximator
         .approximateNumberOfBitHashFunctions(precision);
-    return new BloomFilter(new BitSet(numberOfBits),
-        bitHashFunctions(numberOfBits, numberOfBitHashFunctions, seed));
+    return new BloomFilter(new BitSet(numberOfBits), numberOfBitHashFunctions, seed);
   }
 
-  private static void validateExpectedNumberOfKeys(int expectedNumberOfKeys) {
+  static void validateExpectedNumberOfKeys(long expectedNumberOfKeys) {
     if (expectedNumberOfKeys < 1) {
       throw new IllegalArgumentException(String.format(
           "Expected number of keys should be positive: expectedNumberOfKeys=%s",
@@ -56,53 +105,298 @@ public class BloomFilter {
     }
   }
 
-  private static void validatePrecision(double precision) {
+  static void validatePrecision(double precision) {
     if (precision <= 0 || precision > 1) {
       throw new IllegalArgumentException(String.format(
           "Precision should belong to interval: (0, 1), precision=%s", precision));
     }
   }
 
-  private static List<BitHashFunction> bitHashFunctions(
-      int numberOfBits, int numberOfBitHashFunctions, int seed) {
-    return IntStream.range(0, numberOfBitHashFunctions)
-        .mapToObj(index -> bitHashFunction(numberOfBits, seed, index))
-        .collect(Collectors.toList());
+  // key is hashed once, lower and upper halves of 128-bit murmur3 hash are h1 and h2
+  static long[] hash(byte[] key, int seed) {
+    var hash = new long[2];
+    Murmur3.hash128(key, 0, key.length, seed, hash);
+    return hash;
   }
 
-  private static BitHashFunction bitHashFunction(int numberOfBits, int seed, int index) {
-    var adler = Hashing.adler32();
-    var murmur3 = Hashing.murmur3_32_fixed(seed);
-    return bytes -> {
-      // murmur3Hash + index*adlerHash + index*index
-      var hash = (murmur3.hashBytes(bytes).asInt() +
-          index * adler.hashBytes(bytes).asInt() + index * index);
-      return Math.abs(hash) % numberOfBits;
-    };
+  // i-th bit index is (h1 + i*h2) mod numberOfBits (Kirsch-Mitzenmacher double hashing)
+  static long bitIndex(long combinedHash, long numberOfBits) {
+    return (combinedHash & Long.MAX_VALUE) % numberOfBits;
   }
 
   public void add(byte[] key) {
     validateKey(key);
-    bitHashFunctions.forEach(
-        bitHashFunction -> bitSet.set(bitHashFunction.hash(key)));
+    setBits(hash(key, seed));
   }
 
   public boolean contains(byte[] key) {
     validateKey(key);
-    return bitHashFunctions.stream()
-        .allMatch(bitHashFunction -> bitSet.get(bitHashFunction.hash(key)));
+    return getBits(hash(key, seed));
+  }
+
+  // same as add of the 8 little-endian bytes of the key
+  public void add(long key) {
+    var hash = new long[2];
+    Murmur3.hash128(key, seed, hash);
+    setBits(hash);
+  }
+
+  // same as contains of the 8 little-endian bytes of the key
+  public boolean contains(long key) {
+    var hash = new long[2];
+    Murmur3.hash128(key, seed, hash);
+    return getBits(hash);
+  }
+
+  // same as add of the 4 little-endian bytes of the key
+  public void add(int key) {
+    var hash = new long[2];
+    Murmur3.hash128(key, seed, hash);
+    setBits(hash);
+  }
+
+  // same as contains of the 4 little-endian bytes of the key
+  public boolean contains(int key) {
+    var hash = new long[2];
+    Murmur3.hash128(key, seed, hash);
+    return getBits(hash);
+  }
+
+  // Batch operations hash a chunk of keys into a scratch array of bit indexes first and probe
+  // bits in the second pass, so probes of different keys do not depend on each other and the
+  // CPU overlaps their cache misses.
+  public void addAll(byte[][] keys) {
+    Objects.requireNonNull(keys);
+    batch(keys.length, (index, hash) -> hashKey(keys[index], hash), this::setBits);
+  }
+
+  public void containsAll(byte[][] keys, boolean[] result) {
+    Objects.requireNonNull(keys);
+    validateResult(keys.length, result);
+    batch(keys.length, (index, hash) -> hashKey(keys[index], hash),
+        (bitIndexes, from, to) -> getBits(bitIndexes, result, from, to));
+  }
+
+  // i-th key is the slice [offsets[i], offsets[i + 1]) of the buffer, offsets are absolute
+  // indexes within [position, limit] of the buffer, keys are hashed in place
+  public void addAll(ByteBuffer keys, int[] offsets) {
+    validateOffsets(keys, offsets);
+    batch(offsets.length - 1, (index, hash) -> hashKey(keys, offsets, index, hash),
+        this::setBits);
+  }
+
+  // i-th key is the slice [offsets[i], offsets[i + 1]) of the buffer, offsets are absolute
+  // indexes within [position, limit] of the buffer, keys are hashed in place
+  public void containsAll(ByteBuffer keys, int[] offsets, boolean[] result) {
+    validateOffsets(keys, offsets);
+    validateResult(offsets.length - 1, result);
+    batch(offsets.length - 1, (index, hash) -> hashKey(keys, offsets, index, hash),
+        (bitIndexes, from, to) -> getBits(bitIndexes, result, from, to));
+  }
+
+  public void addAll(long[] keys) {
+    Objects.requireNonNull(keys);
+    batch(keys.length, (index, hash) -> Murmur3.hash128(keys[index], seed, hash),
+        this::setBits);
+  }
+
+  public void containsAll(long[] keys, boolean[] result) {
+    Objects.requireNonNull(keys);
+    validateResult(keys.length, result);
+    batch(keys.length, (index, hash) -> Murmur3.hash128(keys[index], seed, hash),
+        (bitIndexes, from, to) -> getBits(bitIndexes, result, from, to));
+  }
+
+  public void addAll(int[] keys) {
+    Objects.requireNonNull(keys);
+    batch(keys.length, (index, hash) -> Murmur3.hash128(keys[index], seed, hash),
+        this::setBits);
+  }
+
+  public void containsAll(int[] keys, boolean[] result) {
+    Objects.requireNonNull(keys);
+    validateResult(keys.length, result);
+    batch(keys.length, (index, hash) -> Murmur3.hash128(keys[index], seed, hash),
+        (bitIndexes, from, to) -> getBits(bitIndexes, result, from, to));
+  }
+
+  // hashes keys [from, to) of every chunk into the scratch array, then hands it to the probe
+  private void batch(int numberOfKeys, KeyHasher keyHasher, BatchProbe batchProbe) {
+    var bitIndexes = new long[Math.min(numberOfKeys, BATCH_SIZE) * numberOfBitHashFunctions];
+    var hash = new long[2];
+    for (int from = 0; from < numberOfKeys; from += BATCH_SIZE) {
+      var to = Math.min(from + BATCH_SIZE, numberOfKeys);
+      for (int index = from; index < to; index++) {
+        keyHasher.hash(index, hash);
+        bitIndexes(hash, bitIndexes, (index - from) * numberOfBitHashFunctions);
+      }
+      batchProbe.probe(bitIndexes, from, to);
+    }
+  }
+
+  private void hashKey(byte[] key, long[] hash) {
+    validateKey(key);
+    Murmur3.hash128(key, 0, key.length, seed, hash);
+  }
+
+  private void hashKey(ByteBuffer keys, int[] offsets, int index, long[] hash) {
+    Murmur3.hash128(keys, offsets[index], offsets[index + 1] - offsets[index], seed, hash);
+  }
+
+  private void setBits(long[] hash) {
+    var numberOfBits = bitSet.bitSize();
+    var combinedHash = hash[0];
+    for (int index = 0; index < numberOfBitHashFunctions; index++) {
+      bitSet.set(bitIndex(combinedHash, numberOfBits));
+      combinedHash += hash[1];
+    }
+  }
+
+  private boolean getBits(long[] hash) {
+    var numberOfBits = bitSet.bitSize();
+    var combinedHash = hash[0];
+    for (int index = 0; index < numberOfBitHashFunctions; index++) {
+      if (!bitSet.get(bitIndex(combinedHash, numberOfBits))) {
+        return false;
+      }
+      combinedHash += hash[1];
+    }
+    return true;
+  }
+
+  private void bitIndexes(long[] hash, long[] bitIndexes, int from) {
+    var numberOfBits = bitSet.bitSize();
+    var combinedHash = hash[0];
+    for (int index = from; index < from + numberOfBitHashFunctions; index++) {
+      bitIndexes[index] = bitIndex(combinedHash, numberOfBits);
+      combinedHash += hash[1];
+    }
   }
 
-  private static void validateKey(byte[] key) {
+  // bit indexes of keys [from, to) start from 0 in scratch array
+  private void setBits(long[] bitIndexes, int from, int to) {
+    var length = (to - from) * numberOfBitHashFunctions;
+    for (int index = 0; index < length; index++) {
+      bitSet.set(bitIndexes[index]);
+    }
+  }
+
+  // bit indexes of keys [from, to) start from 0 in scratch array
+  private void getBits(long[] bitIndexes, boolean[] result, int from, int to) {
+    for (int key = from; key < to; key++) {
+      var bitIndex = (key - from) * numberOfBitHashFunctions;
+      var contains = true;
+      for (int index = bitIndex; index < bitIndex + numberOfBitHashFunctions; index++) {
+        contains &= bitSet.get(bitIndexes[index]);
+      }
+      result[key] = contains;
+    }
+  }
+
+  static void validateKey(byte[] key) {
     Objects.requireNonNull(key);
   }
 
+  private static void validateResult(int numberOfKeys, boolean[] result) {
+    Objects.requireNonNull(result);
+    if (result.length < numberOfKeys) {
+      throw new IllegalArgumentException(String.format(
+          "Result should fit all keys: resultLength=%s, numberOfKeys=%s",
+          result.length, numberOfKeys));
+    }
+  }
+
+  private static void validateOffsets(ByteBuffer keys, int[] offsets) {
+    Objects.requireNonNull(keys);
+    Objects.requireNonNull(offsets);
+    if (offsets.length < 1) {
+      throw new IllegalArgumentException("Offsets should contain end of the last key");
+    }
+    for (int index = 0; index < offsets.length; index++) {
+      if (offsets[index] < keys.position() || offsets[index] > keys.limit()
+          || (index > 0 && offsets[index] < offsets[index - 1])) {
+        throw new IllegalArgumentException(String.format(
+            "Offsets should be non-decreasing and in range: offset=%s, index=%s, [%s, %s]",
+            offsets[index], index, keys.position(), keys.limit()));
+      }
+    }
+  }
+
+  // writes header and bits to a temporary file next to the given one and moves it into place,
+  // so a filter opened from the replaced file keeps its own mapping; number of bits is limited by
+  // the single mapping used by open
+  @SneakyThrows
+  public void save(Path path) {
+    Objects.requireNonNull(path);
+    var numberOfBits = bitSize();
+    MappedBitSet.validateSize(numberOfBits);
+    var words = bitSet.words();
+    var temporaryPath = Files.createTempFile(
+        path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+    try {
+      try (var channel = FileChannel.open(temporaryPath, StandardOpenOption.WRITE)) {
+        // words are written in chunks, so file size is not limited by a single buffer
+        var buffer = ByteBuffer.allocate(SAVE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN)
+            .putInt(MAGIC)
+            .putInt(VERSION)
+            .putLong(numberOfBits)
+            .putInt(numberOfBitHashFunctions)
+            .putInt(seed);
+        for (var word : words) {
+          if (buffer.remaining() < Long.BYTES) {
+            write(channel, buffer);
+          }
+          buffer.putLong(word);
+        }
+        write(channel, buffer);
+        channel.force(false);
+      }
+      Files.move(temporaryPath, path,
+          StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temporaryPath);
+    }
+  }
+
+  private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  // writes added keys of opened filter to the file, does nothing for filter kept on heap
+  public void flush() {
+    if (bitSet instanceof MappedBitSet mappedBitSet) {
+      mappedBitSet.force();
+    }
+  }
+
+  // throws ArithmeticException if number of bits exceeds Integer.MAX_VALUE
   public int numberOfBits() {
     return bitSet.size();
   }
 
+  public long bitSize() {
+    return bitSet.bitSize();
+  }
+
   public int numberOfBitHashFunctions() {
-    return bitHashFunctions.size();
+    return numberOfBitHashFunctions;
+  }
+
+  // i-th function maps a key to the i-th bit index probed by add and contains, throws
+  // ArithmeticException if number of bits exceeds Integer.MAX_VALUE
+  public List<BitHashFunction> bitHashFunctions() {
+    var numberOfBits = numberOfBits();
+    return IntStream.range(0, numberOfBitHashFunctions)
+        .mapToObj(index -> (BitHashFunction) bytes -> {
+          validateKey(bytes);
+          var hash = hash(bytes, seed);
+          return (int) bitIndex(hash[0] + index * hash[1], numberOfBits);
+        })
+        .toList();
   }
 
   @FunctionalInterface
@@ -111,14 +405,32 @@ public class BloomFilter {
     int hash(byte[] bytes);
   }
 
+  @FunctionalInterface
+  private interface KeyHasher {
+
+    // writes hash of the index-th key of the batch
+    void hash(int index, long[] hash);
+  }
+
+  @FunctionalInterface
+  private interface BatchProbe {
+
+    // sets or tests bits of keys [from, to), their bit indexes start from 0 in scratch array
+    void probe(long[] bitIndexes, int from, int to);
+  }
+
   public static class BloomFilterApproximator {
 
     public int approximateNumberOfBits(double precision, int numberOfKeys) {
-      return (int) (-numberOfKeys * Math.log(1 - precision) / (Math.log(2) * Math.log(2)));
+      return Math.toIntExact(approximateNumberOfBits(precision, (long) numberOfKeys));
+    }
+
+    public long approximateNumberOfBits(double precision, long numberOfKeys) {
+      return (long) (-numberOfKeys * Math.log(1 - precision) / (Math.log(2) * Math.log(2)));
     }
 
     public int approximateNumberOfBitHashFunctions(double precision) {
       return (int) (-Math.log(1 - precision) / Math.log(2));
     }
   }
-}
\ No newline at end of file
+}
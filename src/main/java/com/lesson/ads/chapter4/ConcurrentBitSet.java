@@ -0,0 +1,100 @@
+package com.lesson.ads.chapter4;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// Thread-safe bit set: set and unset are single atomic bitwise operations on a word, so
+// concurrent updates of bits sharing a word are never lost and no locks are taken.
+public class ConcurrentBitSet {
+
+  private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+  // words are addressed by int index
+  private static final long MAX_SIZE = 64L * Integer.MAX_VALUE;
+
+  private final long size;
+  private final long[] words;
+
+  public ConcurrentBitSet(long size) {
+    validateSize(size);
+    this.size = size;
+    var numberOfWords = wordIndex(size - 1) + 1;
+    words = new long[numberOfWords];
+  }
+
+  // returns true if the bit was unset before the call
+  public boolean set(long bitIndex) {
+    validateBitIndex(bitIndex);
+    var mask = 1L << bitIndex;
+    var wordIndex = wordIndex(bitIndex);
+    // read first avoids the atomic write when the bit is already set
+    if ((((long) WORDS.getAcquire(words, wordIndex)) & mask) != 0) {
+      return false;
+    }
+    return (((long) WORDS.getAndBitwiseOr(words, wordIndex, mask)) & mask) == 0;
+  }
+
+  // returns true if the bit was set before the call
+  public boolean unset(long bitIndex) {
+    validateBitIndex(bitIndex);
+    var mask = 1L << bitIndex;
+    var wordIndex = wordIndex(bitIndex);
+    return (((long) WORDS.getAndBitwiseAnd(words, wordIndex, ~mask)) & mask) != 0;
+  }
+
+  public boolean get(long bitIndex) {
+    validateBitIndex(bitIndex);
+    var wordIndex = wordIndex(bitIndex);
+    return (((long) WORDS.getAcquire(words, wordIndex)) & (1L << bitIndex)) != 0;
+  }
+
+  // number of set bits, throws ArithmeticException if it exceeds Integer.MAX_VALUE
+  public int cardinality() {
+    return Math.toIntExact(bitCount());
+  }
+
+  // number of set bits, not a snapshot if bits are modified concurrently
+  public long bitCount() {
+    var cardinality = 0L;
+    for (int wordIndex = 0; wordIndex < words.length; wordIndex++) {
+      cardinality += Long.bitCount((long) WORDS.getAcquire(words, wordIndex));
+    }
+    return cardinality;
+  }
+
+  // throws ArithmeticException if number of bits exceeds Integer.MAX_VALUE
+  public int size() {
+    return Math.toIntExact(size);
+  }
+
+  public long bitSize() {
+    return size;
+  }
+
+  public long[] words() {
+    var copy = new long[words.length];
+    for (int wordIndex = 0; wordIndex < words.length; wordIndex++) {
+      copy[wordIndex] = (long) WORDS.getAcquire(words, wordIndex);
+    }
+    return copy;
+  }
+
+  private void validateSize(long size) {
+    if (size < 1 || size > MAX_SIZE) {
+      throw new IllegalArgumentException(
+          String.format("Size should be in range: size=%s, [1, %s]", size, MAX_SIZE));
+    }
+  }
+
+  private void validateBitIndex(long bitIndex) {
+    if (bitIndex < 0 || bitIndex >= size) {
+      throw new IllegalArgumentException(
+          String.format("Bit index should be in range: bitIndex=%s, [0, %s]", bitIndex, size - 1));
+    }
+  }
+
+  private int wordIndex(long bitIndex) {
+    // divide by 64
+    return (int) (bitIndex >>> 6);
+  }
+}
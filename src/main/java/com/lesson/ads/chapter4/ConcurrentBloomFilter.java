@@ -0,0 +1,77 @@
+package com.lesson.ads.chapter4;
+
+import com.lesson.ads.chapter4.BloomFilter.BloomFilterApproximator;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+// Bloom filter safe for many concurrent writers and readers without locks: bits are only ever
+// set, each with an atomic bitwise or, so a key is visible to contains once add returns.
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class ConcurrentBloomFilter {
+
+  private final ConcurrentBitSet bitSet;
+  private final int numberOfBitHashFunctions;
+  private final int seed;
+
+  public static ConcurrentBloomFilter create(
+      long numberOfBits, int numberOfBitHashFunctions, int seed) {
+    BloomFilter.validateNumberOfBits(numberOfBits);
+    BloomFilter.validateNumberOfBitHashFunctions(numberOfBitHashFunctions);
+    return new ConcurrentBloomFilter(
+        new ConcurrentBitSet(numberOfBits), numberOfBitHashFunctions, seed);
+  }
+
+  public static ConcurrentBloomFilter approximate(
+      int seed, double precision, long expectedNumberOfKeys) {
+    BloomFilter.validatePrecision(precision);
+    BloomFilter.validateExpectedNumberOfKeys(expectedNumberOfKeys);
+    var bloomFilterApproximator = new BloomFilterApproximator();
+    var numberOfBits = bloomFilterApproximator
+        .approximateNumberOfBits(precision, expectedNumberOfKeys);
+    var numberOfBitHashFunctions = bloomFilterApproximator
+        .approximateNumberOfBitHashFunctions(precision);
+    return create(numberOfBits, numberOfBitHashFunctions, seed);
+  }
+
+  // returns true if at least one bit was set by this call, so the key was definitely absent;
+  // of two threads adding the same absent key concurrently at least one gets true
+  public boolean add(byte[] key) {
+    BloomFilter.validateKey(key);
+    var hash = BloomFilter.hash(key, seed);
+    var numberOfBits = bitSet.bitSize();
+    var combinedHash = hash[0];
+    var added = false;
+    for (int index = 0; index < numberOfBitHashFunctions; index++) {
+      added |= bitSet.set(BloomFilter.bitIndex(combinedHash, numberOfBits));
+      combinedHash += hash[1];
+    }
+    return added;
+  }
+
+  public boolean contains(byte[] key) {
+    BloomFilter.validateKey(key);
+    var hash = BloomFilter.hash(key, seed);
+    var numberOfBits = bitSet.bitSize();
+    var combinedHash = hash[0];
+    for (int index = 0; index < numberOfBitHashFunctions; index++) {
+      if (!bitSet.get(BloomFilter.bitIndex(combinedHash, numberOfBits))) {
+        return false;
+      }
+      combinedHash += hash[1];
+    }
+    return true;
+  }
+
+  // throws ArithmeticException if number of bits exceeds Integer.MAX_VALUE
+  public int numberOfBits() {
+    return bitSet.size();
+  }
+
+  public long bitSize() {
+    return bitSet.bitSize();
+  }
+
+  public int numberOfBitHashFunctions() {
+    return numberOfBitHashFunctions;
+  }
+}
@@ -0,0 +1,142 @@
+package com.lesson.ads.chapter4;
+
+import com.lesson.ads.chapter4.BloomFilter.BloomFilterApproximator;
+import java.util.Arrays;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+// Bloom filter with a 4-bit counter instead of a bit, 16 counters are packed into a word. Keys
+// can be removed. Counter reaching 15 sticks, since after overflow its true value is unknown and
+// decrementing it could produce false negatives.
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class CountingBloomFilter {
+
+  private static final long MAX_COUNTER = 15;
+  // words are addressed by int index
+  private static final long MAX_NUMBER_OF_COUNTERS = 16L * Integer.MAX_VALUE;
+
+  private final long[] words;
+  private final long numberOfCounters;
+  private final int numberOfBitHashFunctions;
+  private final int seed;
+
+  public static CountingBloomFilter create(
+      long numberOfCounters, int numberOfBitHashFunctions, int seed) {
+    validateNumberOfCounters(numberOfCounters);
+    BloomFilter.validateNumberOfBitHashFunctions(numberOfBitHashFunctions);
+    var numberOfWords = (int) ((numberOfCounters - 1) >>> 4) + 1;
+    return new CountingBloomFilter(
+        new long[numberOfWords], numberOfCounters, numberOfBitHashFunctions, seed);
+  }
+
+  public static CountingBloomFilter approximate(
+      int seed, double precision, long expectedNumberOfKeys) {
+    BloomFilter.validatePrecision(precision);
+    BloomFilter.validateExpectedNumberOfKeys(expectedNumberOfKeys);
+    var bloomFilterApproximator = new BloomFilterApproximator();
+    var numberOfCounters = bloomFilterApproximator
+        .approximateNumberOfBits(precision, expectedNumberOfKeys);
+    var numberOfBitHashFunctions = bloomFilterApproximator
+        .approximateNumberOfBitHashFunctions(precision);
+    return create(numberOfCounters, numberOfBitHashFunctions, seed);
+  }
+
+  private static void validateNumberOfCounters(long numberOfCounters) {
+    if (numberOfCounters < 1 || numberOfCounters > MAX_NUMBER_OF_COUNTERS) {
+      throw new IllegalArgumentException(String.format(
+          "Number of counters should be in range: numberOfCounters=%s, [1, %s]",
+          numberOfCounters, MAX_NUMBER_OF_COUNTERS));
+    }
+  }
+
+  public void add(byte[] key) {
+    BloomFilter.validateKey(key);
+    var hash = BloomFilter.hash(key, seed);
+    var combinedHash = hash[0];
+    for (int index = 0; index < numberOfBitHashFunctions; index++) {
+      var counterIndex = BloomFilter.bitIndex(combinedHash, numberOfCounters);
+      var counter = counter(counterIndex);
+      if (counter < MAX_COUNTER) {
+        setCounter(counterIndex, counter + 1);
+      }
+      combinedHash += hash[1];
+    }
+  }
+
+  // returns false and keeps counters intact if the key is definitely absent or removing it would
+  // take a counter below zero; removing a key which was never added may remove another key
+  public boolean remove(byte[] key) {
+    BloomFilter.validateKey(key);
+    var counterIndexes = counterIndexes(key);
+    // probes of one key may hit the same counter, so repeated indexes are grouped and the
+    // counter is decremented by the number of hits
+    Arrays.sort(counterIndexes);
+    for (int from = 0, to; from < counterIndexes.length; from = to) {
+      to = nextCounterIndex(counterIndexes, from);
+      var counter = counter(counterIndexes[from]);
+      if (counter < MAX_COUNTER && counter < to - from) {
+        return false;
+      }
+    }
+    for (int from = 0, to; from < counterIndexes.length; from = to) {
+      to = nextCounterIndex(counterIndexes, from);
+      var counter = counter(counterIndexes[from]);
+      if (counter < MAX_COUNTER) {
+        setCounter(counterIndexes[from], counter - (to - from));
+      }
+    }
+    return true;
+  }
+
+  public boolean contains(byte[] key) {
+    BloomFilter.validateKey(key);
+    var hash = BloomFilter.hash(key, seed);
+    var combinedHash = hash[0];
+    for (int index = 0; index < numberOfBitHashFunctions; index++) {
+      if (counter(BloomFilter.bitIndex(combinedHash, numberOfCounters)) == 0) {
+        return false;
+      }
+      combinedHash += hash[1];
+    }
+    return true;
+  }
+
+  public long numberOfCounters() {
+    return numberOfCounters;
+  }
+
+  public int numberOfBitHashFunctions() {
+    return numberOfBitHashFunctions;
+  }
+
+  private long[] counterIndexes(byte[] key) {
+    var hash = BloomFilter.hash(key, seed);
+    var combinedHash = hash[0];
+    var counterIndexes = new long[numberOfBitHashFunctions];
+    for (int index = 0; index < numberOfBitHashFunctions; index++) {
+      counterIndexes[index] = BloomFilter.bitIndex(combinedHash, numberOfCounters);
+      combinedHash += hash[1];
+    }
+    return counterIndexes;
+  }
+
+  // end of the group of equal sorted indexes starting at from
+  private static int nextCounterIndex(long[] counterIndexes, int from) {
+    var to = from + 1;
+    while (to < counterIndexes.length && counterIndexes[to] == counterIndexes[from]) {
+      to++;
+    }
+    return to;
+  }
+
+  private long counter(long counterIndex) {
+    // 16 counters per word, 4 bits per counter
+    return (words[(int) (counterIndex >>> 4)] >>> ((counterIndex & 15) << 2)) & MAX_COUNTER;
+  }
+
+  private void setCounter(long counterIndex, long counter) {
+    var wordIndex = (int) (counterIndex >>> 4);
+    var shift = (counterIndex & 15) << 2;
+    words[wordIndex] = (words[wordIndex] & ~(MAX_COUNTER << shift)) | (counter << shift);
+  }
+}
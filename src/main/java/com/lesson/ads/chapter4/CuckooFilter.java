@@ -0,0 +1,196 @@
+package com.lesson.ads.chapter4;
+
+import java.util.Random;
+
+// Cuckoo filter (Fan et al.): a key is stored as a 16-bit fingerprint in one of its two buckets
+// of 4 slots. Second bucket is the first one xor hash of fingerprint, so it can be computed from
+// either bucket and fingerprint alone when fingerprints are kicked out to make room. Expected
+// false positive rate is about 2 * 4 / 2^16 = 0.012%. Zero fingerprint marks an empty slot.
+public class CuckooFilter {
+
+  private static final int SLOTS_PER_BUCKET = 4;
+  private static final int FINGERPRINT_BITS = 16;
+  private static final int MAX_KICKS = 500;
+  // filter with 4 slots per bucket usually fills up to 95% before insertion fails
+  private static final double MAX_LOAD_FACTOR = 0.95D;
+  // fingerprints of all slots are addressed by int index, 2^28 buckets * 4 slots = 2^30
+  private static final int MAX_NUMBER_OF_BUCKETS = 1 << 28;
+  private static final double FALSE_POSITIVE_RATE =
+      2D * SLOTS_PER_BUCKET / (1 << FINGERPRINT_BITS);
+
+  private final char[] fingerprints;
+  private final int bucketMask;
+  private final int seed;
+  private final Random random;
+  private long numberOfKeys;
+  // fingerprint kicked out by failed insertion, kept so that no added key is lost
+  private char victimFingerprint;
+  private int victimBucket;
+
+  private CuckooFilter(int numberOfBuckets, int seed) {
+    this.fingerprints = new char[numberOfBuckets * SLOTS_PER_BUCKET];
+    this.bucketMask = numberOfBuckets - 1;
+    this.seed = seed;
+    this.random = new Random(seed);
+  }
+
+  // number of buckets is rounded up to a power of two
+  public static CuckooFilter create(int numberOfBuckets, int seed) {
+    if (numberOfBuckets < 1 || numberOfBuckets > MAX_NUMBER_OF_BUCKETS) {
+      throw new IllegalArgumentException(String.format(
+          "Number of buckets should be in range: numberOfBuckets=%s, [1, %s]",
+          numberOfBuckets, MAX_NUMBER_OF_BUCKETS));
+    }
+    return new CuckooFilter(Integer.highestOneBit(2 * numberOfBuckets - 1), seed);
+  }
+
+  // sized so that expected number of keys stays below the maximum load factor
+  public static CuckooFilter approximate(int seed, double precision, long expectedNumberOfKeys) {
+    BloomFilter.validatePrecision(precision);
+    BloomFilter.validateExpectedNumberOfKeys(expectedNumberOfKeys);
+    if (1 - precision < FALSE_POSITIVE_RATE) {
+      throw new IllegalArgumentException(String.format(
+          "Precision should not exceed: precision=%s, %s", precision, 1 - FALSE_POSITIVE_RATE));
+    }
+    var numberOfBuckets = (long) Math.ceil(
+        expectedNumberOfKeys / (SLOTS_PER_BUCKET * MAX_LOAD_FACTOR));
+    if (numberOfBuckets > MAX_NUMBER_OF_BUCKETS) {
+      throw new IllegalArgumentException(String.format(
+          "Expected number of keys is too large: expectedNumberOfKeys=%s",
+          expectedNumberOfKeys));
+    }
+    return create((int) numberOfBuckets, seed);
+  }
+
+  // returns false if the filter is full, the key is not added then
+  public boolean add(byte[] key) {
+    BloomFilter.validateKey(key);
+    if (victimFingerprint != 0) {
+      return false;
+    }
+    var hash = BloomFilter.hash(key, seed);
+    var fingerprint = fingerprint(hash[1]);
+    var bucket = bucket(hash[0]);
+    if (insert(bucket, fingerprint)
+        || insert(alternativeBucket(bucket, fingerprint), fingerprint)) {
+      numberOfKeys++;
+      return true;
+    }
+    kickOut(random.nextBoolean() ? bucket : alternativeBucket(bucket, fingerprint), fingerprint);
+    numberOfKeys++;
+    return true;
+  }
+
+  // places fingerprint kicking out other fingerprints until one finds an empty slot,
+  // the last kicked out fingerprint becomes the victim if none does
+  private void kickOut(int bucket, char fingerprint) {
+    for (int kick = 0; kick < MAX_KICKS; kick++) {
+      var slot = bucket * SLOTS_PER_BUCKET + random.nextInt(SLOTS_PER_BUCKET);
+      var kickedFingerprint = fingerprints[slot];
+      fingerprints[slot] = fingerprint;
+      fingerprint = kickedFingerprint;
+      bucket = alternativeBucket(bucket, fingerprint);
+      if (insert(bucket, fingerprint)) {
+        return;
+      }
+    }
+    victimFingerprint = fingerprint;
+    victimBucket = bucket;
+  }
+
+  public boolean contains(byte[] key) {
+    BloomFilter.validateKey(key);
+    var hash = BloomFilter.hash(key, seed);
+    var fingerprint = fingerprint(hash[1]);
+    var bucket = bucket(hash[0]);
+    var alternativeBucket = alternativeBucket(bucket, fingerprint);
+    return indexOf(bucket, fingerprint) >= 0 || indexOf(alternativeBucket, fingerprint) >= 0
+        || (victimFingerprint == fingerprint
+        && (victimBucket == bucket || victimBucket == alternativeBucket));
+  }
+
+  // removing a key which was never added may remove another key with the same fingerprint
+  public boolean remove(byte[] key) {
+    BloomFilter.validateKey(key);
+    var hash = BloomFilter.hash(key, seed);
+    var fingerprint = fingerprint(hash[1]);
+    var bucket = bucket(hash[0]);
+    var alternativeBucket = alternativeBucket(bucket, fingerprint);
+    if (victimFingerprint == fingerprint
+        && (victimBucket == bucket || victimBucket == alternativeBucket)) {
+      victimFingerprint = 0;
+      numberOfKeys--;
+      return true;
+    }
+    var slot = indexOf(bucket, fingerprint);
+    if (slot < 0) {
+      slot = indexOf(alternativeBucket, fingerprint);
+    }
+    if (slot < 0) {
+      return false;
+    }
+    fingerprints[slot] = 0;
+    numberOfKeys--;
+    // freed slot gives room to the victim
+    if (victimFingerprint != 0) {
+      var fingerprintToPlace = victimFingerprint;
+      victimFingerprint = 0;
+      if (!insert(victimBucket, fingerprintToPlace) && !insert(
+          alternativeBucket(victimBucket, fingerprintToPlace), fingerprintToPlace)) {
+        kickOut(victimBucket, fingerprintToPlace);
+      }
+    }
+    return true;
+  }
+
+  public long numberOfKeys() {
+    return numberOfKeys;
+  }
+
+  public int numberOfBuckets() {
+    return bucketMask + 1;
+  }
+
+  // share of occupied slots
+  public double loadFactor() {
+    return (double) numberOfKeys / fingerprints.length;
+  }
+
+  // memory taken by fingerprint slots per added key, infinite for empty filter
+  public double bitsPerKey() {
+    return (double) FINGERPRINT_BITS * fingerprints.length / numberOfKeys;
+  }
+
+  private boolean insert(int bucket, char fingerprint) {
+    var slot = indexOf(bucket, (char) 0);
+    if (slot < 0) {
+      return false;
+    }
+    fingerprints[slot] = fingerprint;
+    return true;
+  }
+
+  private int indexOf(int bucket, char fingerprint) {
+    var from = bucket * SLOTS_PER_BUCKET;
+    for (int slot = from; slot < from + SLOTS_PER_BUCKET; slot++) {
+      if (fingerprints[slot] == fingerprint) {
+        return slot;
+      }
+    }
+    return -1;
+  }
+
+  private int bucket(long hash) {
+    return (int) hash & bucketMask;
+  }
+
+  private int alternativeBucket(int bucket, char fingerprint) {
+    // multiplication spreads the fingerprint over all bucket bits
+    return (bucket ^ (fingerprint * 0x5bd1e995)) & bucketMask;
+  }
+
+  private static char fingerprint(long hash) {
+    var fingerprint = (char) (hash >>> (64 - FINGERPRINT_BITS));
+    return fingerprint == 0 ? 1 : fingerprint;
+  }
+}
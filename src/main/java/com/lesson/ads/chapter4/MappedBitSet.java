@@ -0,0 +1,114 @@
+package com.lesson.ads.chapter4;
+
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import lombok.SneakyThrows;
+
+// Bit set stored in a memory-mapped file region as little-endian words, so heap usage does not
+// depend on size and bits survive restarts. Modifications are not thread-safe, same as BitSet.
+public class MappedBitSet implements BitVector {
+
+  // single mapping is limited to Integer.MAX_VALUE bytes
+  private static final long MAX_SIZE = 8L * (Integer.MAX_VALUE & ~7);
+
+  private final long size;
+  private final MappedByteBuffer buffer;
+  private final LongBuffer words;
+
+  private MappedBitSet(long size, MappedByteBuffer buffer) {
+    this.size = size;
+    this.buffer = buffer;
+    this.words = buffer.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+  }
+
+  // maps words of size bits starting at position, file is created or extended as needed and
+  // new bits are unset, mapping stays valid after the method returns
+  @SneakyThrows
+  public static MappedBitSet map(Path path, long position, long size) {
+    validateSize(size);
+    validatePosition(position);
+    try (var channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      var buffer = channel.map(MapMode.READ_WRITE, position, 8L * numberOfWords(size));
+      return new MappedBitSet(size, buffer);
+    }
+  }
+
+  // number of bytes taken by words of size bits
+  public static long sizeInBytes(long size) {
+    validateSize(size);
+    return 8L * numberOfWords(size);
+  }
+
+  @Override
+  public void set(long bitIndex) {
+    validateBitIndex(bitIndex);
+    var wordIndex = wordIndex(bitIndex);
+    words.put(wordIndex, words.get(wordIndex) | (1L << bitIndex));
+  }
+
+  @Override
+  public void unset(long bitIndex) {
+    validateBitIndex(bitIndex);
+    var wordIndex = wordIndex(bitIndex);
+    words.put(wordIndex, words.get(wordIndex) & ~(1L << bitIndex));
+  }
+
+  @Override
+  public boolean get(long bitIndex) {
+    validateBitIndex(bitIndex);
+    return (words.get(wordIndex(bitIndex)) & (1L << bitIndex)) != 0;
+  }
+
+  @Override
+  public long bitSize() {
+    return size;
+  }
+
+  @Override
+  public long[] words() {
+    var copy = new long[words.capacity()];
+    words.get(0, copy);
+    return copy;
+  }
+
+  // writes modified bits to the file
+  public void force() {
+    buffer.force();
+  }
+
+  private static int numberOfWords(long size) {
+    return (int) ((size - 1) >>> 6) + 1;
+  }
+
+  static void validateSize(long size) {
+    if (size < 1 || size > MAX_SIZE) {
+      throw new IllegalArgumentException(
+          String.format("Size should be in range: size=%s, [1, %s]", size, MAX_SIZE));
+    }
+  }
+
+  private static void validatePosition(long position) {
+    if (position < 0) {
+      throw new IllegalArgumentException(
+          String.format("Position should not be negative: position=%s", position));
+    }
+  }
+
+  private void validateBitIndex(long bitIndex) {
+    if (bitIndex < 0 || bitIndex >= size) {
+      throw new IllegalArgumentException(
+          String.format("Bit index should be in range: bitIndex=%s, [0, %s]", bitIndex, size - 1));
+    }
+  }
+
+  private int wordIndex(long bitIndex) {
+    // divide by 64
+    return (int) (bitIndex >>> 6);
+  }
+}
@@ -0,0 +1,123 @@
+package com.lesson.ads.chapter4;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// MurmurHash3 x64 128-bit variant, same output as Guava murmur3_128, computed without
+// allocating a HashCode so callers can hash keys on hot paths
+final class Murmur3 {
+
+  private static final VarHandle LONGS =
+      MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+  private static final VarHandle BUFFER_LONGS =
+      MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+  private static final long C1 = 0x87c37b91114253d5L;
+  private static final long C2 = 0x4cf5ad432745937fL;
+
+  private Murmur3() {
+  }
+
+  // writes lower and upper 64 bits of the hash to hash[0] and hash[1]
+  static void hash128(byte[] bytes, int offset, int length, int seed, long[] hash) {
+    hash128((Object) bytes, offset, length, seed, hash);
+  }
+
+  // same as hash of bytes in range [offset, offset + length) of the buffer, position and limit
+  // of the buffer are ignored, works for heap and direct buffers
+  static void hash128(ByteBuffer bytes, int offset, int length, int seed, long[] hash) {
+    hash128((Object) bytes, offset, length, seed, hash);
+  }
+
+  // bytes is either byte[] or ByteBuffer, read through getLong and getByte
+  private static void hash128(Object bytes, int offset, int length, int seed, long[] hash) {
+    long h1 = seed;
+    long h2 = seed;
+    var end = offset + (length & ~15);
+    for (int index = offset; index < end; index += 16) {
+      var k1 = getLong(bytes, index);
+      var k2 = getLong(bytes, index + 8);
+      h1 ^= mixK1(k1);
+      h1 = Long.rotateLeft(h1, 27) + h2;
+      h1 = h1 * 5 + 0x52dce729;
+      h2 ^= mixK2(k2);
+      h2 = Long.rotateLeft(h2, 31) + h1;
+      h2 = h2 * 5 + 0x38495ab5;
+    }
+    var k1 = 0L;
+    var k2 = 0L;
+    // tail bytes in little-endian order, first 8 go to k1 and the rest to k2
+    for (int index = offset + length - 1; index >= end; index--) {
+      var shift = (index - end) << 3;
+      if (shift < 64) {
+        k1 |= (getByte(bytes, index) & 0xFFL) << shift;
+      } else {
+        k2 |= (getByte(bytes, index) & 0xFFL) << shift;
+      }
+    }
+    h1 ^= mixK1(k1);
+    h2 ^= mixK2(k2);
+    finish(h1, h2, length, hash);
+  }
+
+  // same as hash of the 8 little-endian bytes of the value
+  static void hash128(long value, int seed, long[] hash) {
+    long h1 = seed;
+    h1 ^= mixK1(value);
+    finish(h1, seed, Long.BYTES, hash);
+  }
+
+  // same as hash of the 4 little-endian bytes of the value
+  static void hash128(int value, int seed, long[] hash) {
+    long h1 = seed;
+    h1 ^= mixK1(value & 0xFFFFFFFFL);
+    finish(h1, seed, Integer.BYTES, hash);
+  }
+
+  // little-endian long at the byte index, type check keeps each var handle call site constant
+  private static long getLong(Object bytes, int index) {
+    return bytes instanceof byte[] array
+        ? (long) LONGS.get(array, index) : (long) BUFFER_LONGS.get((ByteBuffer) bytes, index);
+  }
+
+  private static byte getByte(Object bytes, int index) {
+    return bytes instanceof byte[] array ? array[index] : ((ByteBuffer) bytes).get(index);
+  }
+
+  private static void finish(long h1, long h2, int length, long[] hash) {
+    h1 ^= length;
+    h2 ^= length;
+    h1 += h2;
+    h2 += h1;
+    h1 = fmix64(h1);
+    h2 = fmix64(h2);
+    h1 += h2;
+    h2 += h1;
+    hash[0] = h1;
+    hash[1] = h2;
+  }
+
+  private static long mixK1(long k1) {
+    k1 *= C1;
+    k1 = Long.rotateLeft(k1, 31);
+    k1 *= C2;
+    return k1;
+  }
+
+  private static long mixK2(long k2) {
+    k2 *= C2;
+    k2 = Long.rotateLeft(k2, 33);
+    k2 *= C1;
+    return k2;
+  }
+
+  private static long fmix64(long k) {
+    k ^= k >>> 33;
+    k *= 0xff51afd7ed558ccdL;
+    k ^= k >>> 33;
+    k *= 0xc4ceb9fe1a85ec53L;
+    k ^= k >>> 33;
+    return k;
+  }
+}
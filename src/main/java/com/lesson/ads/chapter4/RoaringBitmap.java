@@ -0,0 +1,746 @@
+package com.lesson.ads.chapter4;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+// Compressed bitmap over non-negative ints: universe is partitioned into chunks of 2^16 values
+// by high 16 bits, each non-empty chunk is stored in the smallest of array, bitmap or run
+// container. Keys of chunks are kept sorted, so lookup is a binary search over chunks.
+public class RoaringBitmap {
+
+  // array container with more values than that takes more space than bitmap container
+  private static final int ARRAY_CONTAINER_MAX_SIZE = 4096;
+  private static final int BITMAP_CONTAINER_WORDS = 1024;
+
+  private char[] keys;
+  private Container[] containers;
+  private int size;
+
+  public RoaringBitmap() {
+    this.keys = new char[4];
+    this.containers = new Container[4];
+  }
+
+  public void add(int value) {
+    validateValue(value);
+    var high = high(value);
+    var index = containerIndex(high);
+    if (index >= 0) {
+      containers[index] = containers[index].add(low(value));
+    } else {
+      insertContainer(-index - 1, high, new ArrayContainer().add(low(value)));
+    }
+  }
+
+  public void remove(int value) {
+    validateValue(value);
+    var index = containerIndex(high(value));
+    if (index < 0) {
+      return;
+    }
+    var container = containers[index].remove(low(value));
+    if (container.cardinality() == 0) {
+      removeContainer(index);
+    } else {
+      containers[index] = container;
+    }
+  }
+
+  public boolean contains(int value) {
+    if (value < 0) {
+      return false;
+    }
+    var index = containerIndex(high(value));
+    return index >= 0 && containers[index].contains(low(value));
+  }
+
+  // universe holds 2^31 values, so cardinality may not fit into int
+  public long cardinality() {
+    var cardinality = 0L;
+    for (int index = 0; index < size; index++) {
+      cardinality += containers[index].cardinality();
+    }
+    return cardinality;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  // keeps values present in both bitmaps, that bitmap is not modified
+  public void and(RoaringBitmap that) {
+    var resultKeys = new char[Math.min(size, that.size)];
+    var resultContainers = new Container[resultKeys.length];
+    var resultSize = 0;
+    var thisIndex = 0;
+    var thatIndex = 0;
+    while (thisIndex < size && thatIndex < that.size) {
+      var thisKey = keys[thisIndex];
+      var thatKey = that.keys[thatIndex];
+      if (thisKey < thatKey) {
+        thisIndex++;
+      } else if (thisKey > thatKey) {
+        thatIndex++;
+      } else {
+        var container = containers[thisIndex++].and(that.containers[thatIndex++]);
+        if (container.cardinality() > 0) {
+          resultKeys[resultSize] = thisKey;
+          resultContainers[resultSize++] = container;
+        }
+      }
+    }
+    replaceContainers(resultKeys, resultContainers, resultSize);
+  }
+
+  // adds values of that bitmap, that bitmap is not modified
+  public void or(RoaringBitmap that) {
+    var resultKeys = new char[size + that.size];
+    var resultContainers = new Container[resultKeys.length];
+    var resultSize = 0;
+    var thisIndex = 0;
+    var thatIndex = 0;
+    while (thisIndex < size || thatIndex < that.size) {
+      if (thatIndex == that.size
+          || (thisIndex < size && keys[thisIndex] < that.keys[thatIndex])) {
+        resultKeys[resultSize] = keys[thisIndex];
+        resultContainers[resultSize++] = containers[thisIndex++];
+      } else if (thisIndex == size || keys[thisIndex] > that.keys[thatIndex]) {
+        resultKeys[resultSize] = that.keys[thatIndex];
+        // containers are mutated by add and remove, so that container is not shared
+        resultContainers[resultSize++] = that.containers[thatIndex++].copy();
+      } else {
+        resultKeys[resultSize] = keys[thisIndex];
+        resultContainers[resultSize++] =
+            containers[thisIndex++].or(that.containers[thatIndex++]);
+      }
+    }
+    replaceContainers(resultKeys, resultContainers, resultSize);
+  }
+
+  // converts containers to run encoding where it takes less space
+  public void runOptimize() {
+    for (int index = 0; index < size; index++) {
+      containers[index] = containers[index].runOptimize();
+    }
+  }
+
+  // approximate memory taken by keys and containers payload
+  public long sizeInBytes() {
+    var sizeInBytes = 2L * size;
+    for (int index = 0; index < size; index++) {
+      sizeInBytes += containers[index].sizeInBytes();
+    }
+    return sizeInBytes;
+  }
+
+  // visits values in increasing order
+  public void forEach(IntConsumer consumer) {
+    for (int index = 0; index < size; index++) {
+      containers[index].forEach(keys[index] << 16, consumer);
+    }
+  }
+
+  // values in increasing order, modification of bitmap during iteration is not supported
+  public PrimitiveIterator.OfInt iterator() {
+    return new PrimitiveIterator.OfInt() {
+
+      private int index;
+      private PrimitiveIterator.OfInt containerIterator =
+          size == 0 ? null : containers[0].iterator();
+
+      @Override
+      public boolean hasNext() {
+        while (containerIterator != null && !containerIterator.hasNext()) {
+          containerIterator = ++index < size ? containers[index].iterator() : null;
+        }
+        return containerIterator != null;
+      }
+
+      @Override
+      public int nextInt() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return (keys[index] << 16) | containerIterator.nextInt();
+      }
+    };
+  }
+
+  private int containerIndex(char high) {
+    return Arrays.binarySearch(keys, 0, size, high);
+  }
+
+  private void insertContainer(int index, char high, Container container) {
+    if (size == keys.length) {
+      keys = Arrays.copyOf(keys, 2 * size);
+      containers = Arrays.copyOf(containers, 2 * size);
+    }
+    System.arraycopy(keys, index, keys, index + 1, size - index);
+    System.arraycopy(containers, index, containers, index + 1, size - index);
+    keys[index] = high;
+    containers[index] = container;
+    size++;
+  }
+
+  private void removeContainer(int index) {
+    System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+    System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+    containers[--size] = null;
+  }
+
+  private void replaceContainers(char[] keys, Container[] containers, int size) {
+    var capacity = Math.max(size, 4);
+    this.keys = Arrays.copyOf(keys, capacity);
+    this.containers = Arrays.copyOf(containers, capacity);
+    this.size = size;
+  }
+
+  private static void validateValue(int value) {
+    if (value < 0) {
+      throw new IllegalArgumentException(
+          String.format("Value should not be negative: value=%s", value));
+    }
+  }
+
+  private static char high(int value) {
+    return (char) (value >>> 16);
+  }
+
+  private static char low(int value) {
+    return (char) value;
+  }
+
+  // add and remove may mutate container in place or return container of another type
+  private interface Container {
+
+    Container add(char value);
+
+    Container remove(char value);
+
+    boolean contains(char value);
+
+    int cardinality();
+
+    Container and(Container that);
+
+    Container or(Container that);
+
+    Container runOptimize();
+
+    Container copy();
+
+    int sizeInBytes();
+
+    void forEach(int high, IntConsumer consumer);
+
+    PrimitiveIterator.OfInt iterator();
+  }
+
+  // sorted values, used for chunks with at most 4096 values
+  private static class ArrayContainer implements Container {
+
+    private char[] values;
+    private int cardinality;
+
+    ArrayContainer() {
+      this(new char[4], 0);
+    }
+
+    ArrayContainer(char[] values, int cardinality) {
+      this.values = values;
+      this.cardinality = cardinality;
+    }
+
+    @Override
+    public Container add(char value) {
+      var index = Arrays.binarySearch(values, 0, cardinality, value);
+      if (index >= 0) {
+        return this;
+      }
+      if (cardinality == ARRAY_CONTAINER_MAX_SIZE) {
+        return toBitmapContainer().add(value);
+      }
+      if (cardinality == values.length) {
+        values = Arrays.copyOf(values,
+            Math.min(2 * cardinality, ARRAY_CONTAINER_MAX_SIZE));
+      }
+      index = -index - 1;
+      System.arraycopy(values, index, values, index + 1, cardinality - index);
+      values[index] = value;
+      cardinality++;
+      return this;
+    }
+
+    @Override
+    public Container remove(char value) {
+      var index = Arrays.binarySearch(values, 0, cardinality, value);
+      if (index >= 0) {
+        System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+        cardinality--;
+      }
+      return this;
+    }
+
+    @Override
+    public boolean contains(char value) {
+      return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+    }
+
+    @Override
+    public int cardinality() {
+      return cardinality;
+    }
+
+    @Override
+    public Container and(Container that) {
+      if (that instanceof ArrayContainer thatArray) {
+        // merge of two sorted arrays
+        var result = new char[Math.min(cardinality, thatArray.cardinality)];
+        var resultCardinality = 0;
+        var thisIndex = 0;
+        var thatIndex = 0;
+        while (thisIndex < cardinality && thatIndex < thatArray.cardinality) {
+          var thisValue = values[thisIndex];
+          var thatValue = thatArray.values[thatIndex];
+          if (thisValue < thatValue) {
+            thisIndex++;
+          } else if (thisValue > thatValue) {
+            thatIndex++;
+          } else {
+            result[resultCardinality++] = thisValue;
+            thisIndex++;
+            thatIndex++;
+          }
+        }
+        return new ArrayContainer(result, resultCardinality);
+      }
+      var result = new char[cardinality];
+      var resultCardinality = 0;
+      for (int index = 0; index < cardinality; index++) {
+        if (that.contains(values[index])) {
+          result[resultCardinality++] = values[index];
+        }
+      }
+      return new ArrayContainer(result, resultCardinality);
+    }
+
+    @Override
+    public Container or(Container that) {
+      if (that instanceof ArrayContainer thatArray) {
+        if (cardinality + thatArray.cardinality > ARRAY_CONTAINER_MAX_SIZE) {
+          return toBitmapContainer().or(thatArray);
+        }
+        var result = new char[cardinality + thatArray.cardinality];
+        var resultCardinality = 0;
+        var thisIndex = 0;
+        var thatIndex = 0;
+        while (thisIndex < cardinality || thatIndex < thatArray.cardinality) {
+          if (thatIndex == thatArray.cardinality
+              || (thisIndex < cardinality && values[thisIndex] < thatArray.values[thatIndex])) {
+            result[resultCardinality++] = values[thisIndex++];
+          } else if (thisIndex == cardinality
+              || values[thisIndex] > thatArray.values[thatIndex]) {
+            result[resultCardinality++] = thatArray.values[thatIndex++];
+          } else {
+            result[resultCardinality++] = values[thisIndex++];
+            thatIndex++;
+          }
+        }
+        return new ArrayContainer(result, resultCardinality);
+      }
+      return that.or(this);
+    }
+
+    @Override
+    public Container runOptimize() {
+      var numberOfRuns = 0;
+      for (int index = 0; index < cardinality; index++) {
+        if (index == 0 || values[index] != values[index - 1] + 1) {
+          numberOfRuns++;
+        }
+      }
+      if (RunContainer.sizeInBytes(numberOfRuns) >= sizeInBytes()) {
+        return this;
+      }
+      var runs = new char[2 * numberOfRuns];
+      var run = -1;
+      for (int index = 0; index < cardinality; index++) {
+        if (index == 0 || values[index] != values[index - 1] + 1) {
+          runs[2 * ++run] = values[index];
+        } else {
+          runs[2 * run + 1]++;
+        }
+      }
+      return new RunContainer(runs, numberOfRuns);
+    }
+
+    @Override
+    public Container copy() {
+      return new ArrayContainer(Arrays.copyOf(values, Math.max(cardinality, 4)), cardinality);
+    }
+
+    @Override
+    public int sizeInBytes() {
+      return 2 * cardinality;
+    }
+
+    @Override
+    public void forEach(int high, IntConsumer consumer) {
+      for (int index = 0; index < cardinality; index++) {
+        consumer.accept(high | values[index]);
+      }
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+      return new PrimitiveIterator.OfInt() {
+
+        private int index;
+
+        @Override
+        public boolean hasNext() {
+          return index < cardinality;
+        }
+
+        @Override
+        public int nextInt() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          return values[index++];
+        }
+      };
+    }
+
+    private BitmapContainer toBitmapContainer() {
+      var bitmap = new BitmapContainer();
+      for (int index = 0; index < cardinality; index++) {
+        bitmap.add(values[index]);
+      }
+      return bitmap;
+    }
+  }
+
+  // 2^16 bits, used for chunks with more than 4096 values
+  private static class BitmapContainer implements Container {
+
+    private final long[] words;
+    private int cardinality;
+
+    BitmapContainer() {
+      this(new long[BITMAP_CONTAINER_WORDS], 0);
+    }
+
+    BitmapContainer(long[] words, int cardinality) {
+      this.words = words;
+      this.cardinality = cardinality;
+    }
+
+    @Override
+    public Container add(char value) {
+      var word = words[value >> 6];
+      var bit = 1L << value;
+      if ((word & bit) == 0) {
+        words[value >> 6] = word | bit;
+        cardinality++;
+      }
+      return this;
+    }
+
+    @Override
+    public Container remove(char value) {
+      var word = words[value >> 6];
+      var bit = 1L << value;
+      if ((word & bit) != 0) {
+        words[value >> 6] = word & ~bit;
+        cardinality--;
+      }
+      return cardinality <= ARRAY_CONTAINER_MAX_SIZE ? toArrayContainer() : this;
+    }
+
+    @Override
+    public boolean contains(char value) {
+      return (words[value >> 6] & (1L << value)) != 0;
+    }
+
+    @Override
+    public int cardinality() {
+      return cardinality;
+    }
+
+    @Override
+    public Container and(Container that) {
+      if (that instanceof BitmapContainer thatBitmap) {
+        var result = new long[BITMAP_CONTAINER_WORDS];
+        var resultCardinality = 0;
+        for (int index = 0; index < BITMAP_CONTAINER_WORDS; index++) {
+          result[index] = words[index] & thatBitmap.words[index];
+          resultCardinality += Long.bitCount(result[index]);
+        }
+        var container = new BitmapContainer(result, resultCardinality);
+        return resultCardinality <= ARRAY_CONTAINER_MAX_SIZE
+            ? container.toArrayContainer() : container;
+      }
+      return that.and(this);
+    }
+
+    @Override
+    public Container or(Container that) {
+      var result = new long[BITMAP_CONTAINER_WORDS];
+      if (that instanceof BitmapContainer thatBitmap) {
+        var resultCardinality = 0;
+        for (int index = 0; index < BITMAP_CONTAINER_WORDS; index++) {
+          result[index] = words[index] | thatBitmap.words[index];
+          resultCardinality += Long.bitCount(result[index]);
+        }
+        return new BitmapContainer(result, resultCardinality);
+      }
+      System.arraycopy(words, 0, result, 0, BITMAP_CONTAINER_WORDS);
+      var container = new BitmapContainer(result, cardinality);
+      that.forEach(0, value -> container.add((char) value));
+      return container;
+    }
+
+    @Override
+    public Container runOptimize() {
+      var numberOfRuns = 0;
+      for (int index = 0; index < BITMAP_CONTAINER_WORDS; index++) {
+        var word = words[index];
+        var previousBit = index == 0 ? 0L : words[index - 1] >>> 63;
+        // run starts at every set bit which previous bit is unset
+        numberOfRuns += Long.bitCount(word & ~((word << 1) | previousBit));
+      }
+      if (RunContainer.sizeInBytes(numberOfRuns) >= sizeInBytes()) {
+        return this;
+      }
+      var runs = new char[2 * numberOfRuns];
+      var run = 0;
+      var value = nextSetBit(0);
+      while (value >= 0) {
+        var end = nextClearBit(value);
+        runs[2 * run] = (char) value;
+        runs[2 * run + 1] = (char) (end - value - 1);
+        run++;
+        value = end < 1 << 16 ? nextSetBit(end) : -1;
+      }
+      return new RunContainer(runs, numberOfRuns);
+    }
+
+    @Override
+    public Container copy() {
+      return new BitmapContainer(Arrays.copyOf(words, BITMAP_CONTAINER_WORDS), cardinality);
+    }
+
+    @Override
+    public int sizeInBytes() {
+      return 8 * BITMAP_CONTAINER_WORDS;
+    }
+
+    @Override
+    public void forEach(int high, IntConsumer consumer) {
+      for (int index = 0; index < BITMAP_CONTAINER_WORDS; index++) {
+        var word = words[index];
+        while (word != 0) {
+          consumer.accept(high | (index << 6) + Long.numberOfTrailingZeros(word));
+          word &= word - 1;
+        }
+      }
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+      return new PrimitiveIterator.OfInt() {
+
+        private int next = nextSetBit(0);
+
+        @Override
+        public boolean hasNext() {
+          return next >= 0;
+        }
+
+        @Override
+        public int nextInt() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          var value = next;
+          next = value + 1 < 1 << 16 ? nextSetBit(value + 1) : -1;
+          return value;
+        }
+      };
+    }
+
+    private int nextSetBit(int fromValue) {
+      var index = fromValue >> 6;
+      var word = words[index] & (-1L << fromValue);
+      while (word == 0) {
+        if (++index == BITMAP_CONTAINER_WORDS) {
+          return -1;
+        }
+        word = words[index];
+      }
+      return (index << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    // returns 2^16 if all bits from fromValue are set
+    private int nextClearBit(int fromValue) {
+      var index = fromValue >> 6;
+      var word = ~words[index] & (-1L << fromValue);
+      while (word == 0) {
+        if (++index == BITMAP_CONTAINER_WORDS) {
+          return 1 << 16;
+        }
+        word = ~words[index];
+      }
+      return (index << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    private ArrayContainer toArrayContainer() {
+      var values = new char[cardinality];
+      var index = 0;
+      for (int wordIndex = 0; wordIndex < BITMAP_CONTAINER_WORDS; wordIndex++) {
+        var word = words[wordIndex];
+        while (word != 0) {
+          values[index++] = (char) ((wordIndex << 6) + Long.numberOfTrailingZeros(word));
+          word &= word - 1;
+        }
+      }
+      return new ArrayContainer(values, cardinality);
+    }
+  }
+
+  // pairs of run start and run length minus one, produced by runOptimize only, so
+  // modification decodes it back to array or bitmap container
+  private static class RunContainer implements Container {
+
+    private final char[] runs;
+    private final int numberOfRuns;
+    private final int cardinality;
+
+    RunContainer(char[] runs, int numberOfRuns) {
+      this.runs = runs;
+      this.numberOfRuns = numberOfRuns;
+      var cardinality = 0;
+      for (int run = 0; run < numberOfRuns; run++) {
+        cardinality += runs[2 * run + 1] + 1;
+      }
+      this.cardinality = cardinality;
+    }
+
+    static int sizeInBytes(int numberOfRuns) {
+      return 4 * numberOfRuns;
+    }
+
+    @Override
+    public Container add(char value) {
+      return contains(value) ? this : decode().add(value);
+    }
+
+    @Override
+    public Container remove(char value) {
+      return contains(value) ? decode().remove(value) : this;
+    }
+
+    @Override
+    public boolean contains(char value) {
+      // last run which start is not greater than value
+      var low = 0;
+      var high = numberOfRuns - 1;
+      while (low <= high) {
+        var middle = (low + high) >>> 1;
+        if (runs[2 * middle] <= value) {
+          low = middle + 1;
+        } else {
+          high = middle - 1;
+        }
+      }
+      return high >= 0 && value - runs[2 * high] <= runs[2 * high + 1];
+    }
+
+    @Override
+    public int cardinality() {
+      return cardinality;
+    }
+
+    @Override
+    public Container and(Container that) {
+      return decode().and(that);
+    }
+
+    @Override
+    public Container or(Container that) {
+      return decode().or(that);
+    }
+
+    @Override
+    public Container runOptimize() {
+      return this;
+    }
+
+    @Override
+    public Container copy() {
+      // run container is never mutated
+      return this;
+    }
+
+    @Override
+    public int sizeInBytes() {
+      return sizeInBytes(numberOfRuns);
+    }
+
+    @Override
+    public void forEach(int high, IntConsumer consumer) {
+      for (int run = 0; run < numberOfRuns; run++) {
+        var end = runs[2 * run] + runs[2 * run + 1];
+        for (int value = runs[2 * run]; value <= end; value++) {
+          consumer.accept(high | value);
+        }
+      }
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+      return new PrimitiveIterator.OfInt() {
+
+        private int run;
+        private int next = numberOfRuns == 0 ? 0 : runs[0];
+
+        @Override
+        public boolean hasNext() {
+          return run < numberOfRuns;
+        }
+
+        @Override
+        public int nextInt() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          var value = next++;
+          if (value == runs[2 * run] + runs[2 * run + 1] && ++run < numberOfRuns) {
+            next = runs[2 * run];
+          }
+          return value;
+        }
+      };
+    }
+
+    private Container decode() {
+      if (cardinality > ARRAY_CONTAINER_MAX_SIZE) {
+        var bitmap = new BitmapContainer();
+        forEach(0, value -> bitmap.add((char) value));
+        return bitmap;
+      }
+      var values = new char[Math.max(cardinality, 4)];
+      var index = 0;
+      for (int run = 0; run < numberOfRuns; run++) {
+        var end = runs[2 * run] + runs[2 * run + 1];
+        for (int value = runs[2 * run]; value <= end; value++) {
+          values[index++] = (char) value;
+        }
+      }
+      return new ArrayContainer(values, cardinality);
+    }
+  }
+}
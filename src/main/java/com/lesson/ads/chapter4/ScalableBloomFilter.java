@@ -0,0 +1,88 @@
+package com.lesson.ads.chapter4;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Chain of bloom filters (Almeida et al.): when the last filter is full a new one is added with
+// GROWTH_FACTOR times more keys and TIGHTENING_RATIO times lower false positive rate. False
+// positive rates form a geometric series, so the total stays below the target for any number
+// of keys.
+public class ScalableBloomFilter {
+
+  private static final int GROWTH_FACTOR = 2;
+  private static final double TIGHTENING_RATIO = 0.8D;
+
+  private final int seed;
+  private final List<BloomFilter> bloomFilters;
+  private long numberOfKeys;
+  // total capacity of all filters
+  private long capacity;
+  private long lastBloomFilterCapacity;
+  private double lastBloomFilterFalsePositiveRate;
+
+  private ScalableBloomFilter(int seed, double precision, long initialNumberOfKeys) {
+    this.seed = seed;
+    this.bloomFilters = new ArrayList<>();
+    // series (1 - precision) * (1 - r) * (1 + r + r^2 + ...) sums up to 1 - precision
+    addBloomFilter(initialNumberOfKeys, (1 - precision) * (1 - TIGHTENING_RATIO));
+  }
+
+  // precision holds for the whole chain, initial number of keys is the capacity of the first
+  // filter only
+  public static ScalableBloomFilter approximate(
+      int seed, double precision, long initialNumberOfKeys) {
+    BloomFilter.validatePrecision(precision);
+    BloomFilter.validateExpectedNumberOfKeys(initialNumberOfKeys);
+    return new ScalableBloomFilter(seed, precision, initialNumberOfKeys);
+  }
+
+  public void add(byte[] key) {
+    // keys already present do not use capacity
+    if (contains(key)) {
+      return;
+    }
+    if (numberOfKeys == capacity) {
+      addBloomFilter(GROWTH_FACTOR * lastBloomFilterCapacity,
+          TIGHTENING_RATIO * lastBloomFilterFalsePositiveRate);
+    }
+    bloomFilters.get(bloomFilters.size() - 1).add(key);
+    numberOfKeys++;
+  }
+
+  public boolean contains(byte[] key) {
+    BloomFilter.validateKey(key);
+    // the latest filter holds the most keys
+    for (int index = bloomFilters.size() - 1; index >= 0; index--) {
+      if (bloomFilters.get(index).contains(key)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // keys added so far, not counting keys reported as present
+  public long numberOfKeys() {
+    return numberOfKeys;
+  }
+
+  public int numberOfBloomFilters() {
+    return bloomFilters.size();
+  }
+
+  public long numberOfBits() {
+    var numberOfBits = 0L;
+    for (var bloomFilter : bloomFilters) {
+      numberOfBits += bloomFilter.bitSize();
+    }
+    return numberOfBits;
+  }
+
+  private void addBloomFilter(long bloomFilterCapacity, double falsePositiveRate) {
+    // different seed per filter keeps false positives of filters independent
+    bloomFilters.add(BloomFilter.approximate(
+        seed + bloomFilters.size(), 1 - falsePositiveRate, bloomFilterCapacity));
+    capacity += bloomFilterCapacity;
+    lastBloomFilterCapacity = bloomFilterCapacity;
+    lastBloomFilterFalsePositiveRate = falsePositiveRate;
+  }
+}
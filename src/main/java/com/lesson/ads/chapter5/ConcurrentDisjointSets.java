@@ -0,0 +1,103 @@
+package com.lesson.ads.chapter5;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lock-free disjoint sets of elements 0..size-1 (Anderson and Woll, Jayanti and Tarjan): roots are
+// linked with CAS on the parent slot and retried if another thread changed the root first. Root
+// with lower random priority is linked under the other one, which keeps trees logarithmic
+// without ranks that would have to be updated together with the parent. Path splitting is done
+// with CAS as well, failed CAS only means another thread already shortened the path.
+public class ConcurrentDisjointSets {
+
+  private final AtomicIntegerArray parents;
+  private final LongAdder numberOfMerges;
+
+  // elements 0..size-1 start as singleton sets
+  public ConcurrentDisjointSets(int size) {
+    if (size < 0) {
+      throw new IllegalArgumentException("Parameter size should be not negative");
+    }
+    this.parents = new AtomicIntegerArray(size);
+    for (int element = 0; element < size; element++) {
+      parents.set(element, element);
+    }
+    this.numberOfMerges = new LongAdder();
+  }
+
+  // root at the moment of the call, may stop being a root once another thread merges its set
+  public int findRoot(int element) {
+    validateElement(element);
+    var parent = parents.get(element);
+    while (parent != element) {
+      // path splitting: element is linked to its grandparent, then the walk continues at parent
+      var grandparent = parents.get(parent);
+      if (parent != grandparent) {
+        parents.compareAndSet(element, parent, grandparent);
+      }
+      element = parent;
+      parent = grandparent;
+    }
+    return element;
+  }
+
+  public boolean merge(int left, int right) {
+    validateElement(left);
+    validateElement(right);
+    while (true) {
+      var leftRoot = findRoot(left);
+      var rightRoot = findRoot(right);
+      if (leftRoot == rightRoot) {
+        return false;
+      }
+      var linked = priority(leftRoot) < priority(rightRoot)
+          ? parents.compareAndSet(leftRoot, leftRoot, rightRoot)
+          : parents.compareAndSet(rightRoot, rightRoot, leftRoot);
+      if (linked) {
+        numberOfMerges.increment();
+        return true;
+      }
+    }
+  }
+
+  public boolean sameSet(int left, int right) {
+    validateElement(left);
+    validateElement(right);
+    while (true) {
+      var leftRoot = findRoot(left);
+      var rightRoot = findRoot(right);
+      if (leftRoot == rightRoot) {
+        return true;
+      }
+      // left root still being a root means sets were different after both roots were found
+      if (parents.get(leftRoot) == leftRoot) {
+        return false;
+      }
+    }
+  }
+
+  public int size() {
+    return parents.length();
+  }
+
+  // exact when no merge is running
+  public int numberOfSets() {
+    return parents.length() - numberOfMerges.intValue();
+  }
+
+  // random permutation of elements given by a bijective hash, ties are impossible
+  private static long priority(int element) {
+    var hash = element * 0x9E3779B9;
+    hash ^= hash >>> 16;
+    hash *= 0x85EBCA6B;
+    hash ^= hash >>> 13;
+    return hash & 0xFFFFFFFFL;
+  }
+
+  private void validateElement(int element) {
+    if (element < 0 || element >= parents.length()) {
+      throw new IllegalArgumentException(String.format(
+          "Element should be in range: element=%s, [0, %s]", element, parents.length() - 1));
+    }
+  }
+}
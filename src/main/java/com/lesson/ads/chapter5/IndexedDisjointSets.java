@@ -0,0 +1,75 @@
+package com.lesson.ads.chapter5;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Disjoint sets of arbitrary elements on top of IntDisjointSets: each element gets an index once
+// on add, merges and finds then work on indexes only.
+public class IndexedDisjointSets<E> {
+
+  private final Map<E, Integer> elementToIndex;
+  private final List<E> elements;
+  private final IntDisjointSets disjointSets;
+
+  public IndexedDisjointSets() {
+    this.elementToIndex = new HashMap<>();
+    this.elements = new ArrayList<>();
+    this.disjointSets = new IntDisjointSets(0);
+  }
+
+  public IndexedDisjointSets(Collection<E> elements) {
+    this();
+    elements.forEach(this::add);
+  }
+
+  public E add(E element) {
+    if (elementToIndex.containsKey(element)) {
+      throw new IllegalArgumentException(
+          String.format("Element already present: element=%s", element));
+    }
+    elementToIndex.put(element, disjointSets.add());
+    elements.add(element);
+    return element;
+  }
+
+  public E findRoot(E element) {
+    return elements.get(disjointSets.findRoot(index(element)));
+  }
+
+  public boolean merge(E left, E right) {
+    return disjointSets.merge(index(left), index(right));
+  }
+
+  public boolean sameSet(E left, E right) {
+    return disjointSets.sameSet(index(left), index(right));
+  }
+
+  // index of the element in the underlying IntDisjointSets
+  public int index(E element) {
+    var index = elementToIndex.get(element);
+    if (index == null) {
+      throw new IllegalArgumentException(
+          String.format("Element not present: element=%s", element));
+    }
+    return index;
+  }
+
+  public int numberOfSets() {
+    return disjointSets.numberOfSets();
+  }
+
+  public Collection<Set<E>> disjointSets() {
+    var rootToSet = new HashMap<Integer, Set<E>>();
+    // aggregate by root
+    for (int index = 0; index < elements.size(); index++) {
+      rootToSet.computeIfAbsent(disjointSets.findRoot(index), root -> new HashSet<>())
+          .add(elements.get(index));
+    }
+    return rootToSet.values();
+  }
+}
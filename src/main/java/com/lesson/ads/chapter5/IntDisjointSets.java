@@ -0,0 +1,86 @@
+package com.lesson.ads.chapter5;
+
+import java.util.Arrays;
+
+// Disjoint sets of elements 0..size-1 kept in a parent array: union by rank and iterative path
+// halving, so find takes amortized near constant time without recursion or boxing.
+public class IntDisjointSets {
+
+  private int[] parents;
+  // upper bound of tree height, never exceeds log2(size) so fits into a byte
+  private byte[] ranks;
+  private int size;
+  private int numberOfSets;
+
+  // elements 0..size-1 start as singleton sets
+  public IntDisjointSets(int size) {
+    if (size < 0) {
+      throw new IllegalArgumentException("Parameter size should be not negative");
+    }
+    this.parents = new int[Math.max(size, 16)];
+    this.ranks = new byte[parents.length];
+    for (int element = 0; element < size; element++) {
+      parents[element] = element;
+    }
+    this.size = size;
+    this.numberOfSets = size;
+  }
+
+  // adds singleton set, returns its element
+  public int add() {
+    if (size == parents.length) {
+      parents = Arrays.copyOf(parents, 2 * size);
+      ranks = Arrays.copyOf(ranks, parents.length);
+    }
+    parents[size] = size;
+    numberOfSets++;
+    return size++;
+  }
+
+  public int findRoot(int element) {
+    validateElement(element);
+    // path halving: every node on the path is linked to its grandparent
+    while (parents[element] != element) {
+      parents[element] = parents[parents[element]];
+      element = parents[element];
+    }
+    return element;
+  }
+
+  public boolean merge(int left, int right) {
+    var leftRoot = findRoot(left);
+    var rightRoot = findRoot(right);
+    if (leftRoot == rightRoot) {
+      return false;
+    }
+    if (ranks[leftRoot] < ranks[rightRoot]) {
+      parents[leftRoot] = rightRoot;
+    } else {
+      parents[rightRoot] = leftRoot;
+      if (ranks[leftRoot] == ranks[rightRoot]) {
+        ranks[leftRoot]++;
+      }
+    }
+    numberOfSets--;
+    return true;
+  }
+
+  public boolean sameSet(int left, int right) {
+    return findRoot(left) == findRoot(right);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public int numberOfSets() {
+    return numberOfSets;
+  }
+
+  private void validateElement(int element) {
+    if (element < 0 || element >= size) {
+      throw new IllegalArgumentException(
+          String.format("Element should be in range: element=%s, [0, %s]", element, size - 1));
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package com.lesson.ads.chapter2;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import lombok.SneakyThrows;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+@Tag("Benchmark")
+class ConcurrentMultiDHeapBenchmarkTest {
+
+  private static final int NUMBER_OF_OPERATIONS_PER_THREAD = 1_000_000;
+  private static final int NUMBER_OF_PRELOADED_ELEMENTS = 100_000;
+
+  @BeforeAll
+  static void warmUp() {
+    final var multiDHeap = new ConcurrentMultiDHeap<Long>(2, 4);
+    final var blockingQueue = new PriorityBlockingQueue<Long>();
+    throughput(2, multiDHeap::offer, multiDHeap::poll);
+    throughput(2, blockingQueue::offer, blockingQueue::poll);
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 4, 16, 64})
+  void shouldCompareThroughputWithPriorityBlockingQueue(int numberOfThreads) {
+    // Given
+    final var multiDHeap = new ConcurrentMultiDHeap<Long>(2 * numberOfThreads, 4);
+    final var blockingQueue = new PriorityBlockingQueue<Long>();
+
+    // When
+    final var multiDHeapThroughput =
+        throughput(numberOfThreads, multiDHeap::offer, multiDHeap::poll);
+    final var blockingQueueThroughput =
+        throughput(numberOfThreads, blockingQueue::offer, blockingQueue::poll);
+
+    // Then
+    System.out.printf(
+        "threads=%s, ConcurrentMultiDHeap=%.0f ops/s, PriorityBlockingQueue=%.0f ops/s%n",
+        numberOfThreads, multiDHeapThroughput, blockingQueueThroughput);
+    Assertions.assertThat(multiDHeapThroughput).isPositive();
+    Assertions.assertThat(blockingQueueThroughput).isPositive();
+  }
+
+  @SneakyThrows
+  private static double throughput(
+      int numberOfThreads, Consumer<Long> offer, Supplier<Long> poll) {
+    var random = ThreadLocalRandom.current();
+    for (int index = 0; index < NUMBER_OF_PRELOADED_ELEMENTS; index++) {
+      offer.accept(random.nextLong());
+    }
+    var start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+    for (int thread = 0; thread < numberOfThreads; thread++) {
+      executor.execute(() -> {
+        await(start);
+        var threadRandom = ThreadLocalRandom.current();
+        for (int operation = 0; operation < NUMBER_OF_OPERATIONS_PER_THREAD; operation++) {
+          if (operation % 2 == 0) {
+            offer.accept(threadRandom.nextLong());
+          } else {
+            poll.get();
+          }
+        }
+      });
+    }
+    var startNanos = System.nanoTime();
+    start.countDown();
+    executor.shutdown();
+    if (!executor.awaitTermination(10, TimeUnit.MINUTES)) {
+      throw new IllegalStateException("Benchmark did not finish in time");
+    }
+    var elapsedNanos = System.nanoTime() - startNanos;
+    return (double) numberOfThreads * NUMBER_OF_OPERATIONS_PER_THREAD
+        * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+  }
+
+  @SneakyThrows
+  private static void await(CountDownLatch latch) {
+    latch.await();
+  }
+}
@@ -0,0 +1,115 @@
+package com.lesson.ads.chapter2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import lombok.SneakyThrows;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentMultiDHeapTest {
+
+  @Test
+  void shouldPollInOrderCaseOneStripe() {
+    // Given
+    final var sut = new ConcurrentMultiDHeap<Integer>(1, 4);
+    List.of(10, 101, 6, 1, -20, 20, 78).forEach(sut::offer);
+
+    // When
+    final var result = new ArrayList<Integer>();
+    while (!sut.isEmpty()) {
+      result.add(sut.poll());
+    }
+
+    // Then
+    Assertions.assertThat(result).containsExactly(-20, 1, 6, 10, 20, 78, 101);
+  }
+
+  @Test
+  void shouldPollCaseEmpty() {
+    // Given
+    final var sut = new ConcurrentMultiDHeap<Integer>(4, 2);
+
+    // When
+    final var result = sut.poll();
+
+    // Then
+    Assertions.assertThat(result).isNull();
+  }
+
+  @Test
+  void shouldPollAllOfferedCaseManyStripes() {
+    // Given
+    final var sut = new ConcurrentMultiDHeap<Integer>(8, 4);
+    IntStream.range(0, 1000).forEach(sut::offer);
+
+    // When
+    final var result = new ArrayList<Integer>();
+    while (!sut.isEmpty()) {
+      result.add(sut.poll());
+    }
+
+    // Then
+    Assertions.assertThat(result)
+        .containsExactlyInAnyOrderElementsOf(IntStream.range(0, 1000).boxed().toList());
+    Assertions.assertThat(sut.poll()).isNull();
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldOfferPollConcurrently() {
+    // Given
+    final var numberOfThreads = 8;
+    final var numberOfElementsPerThread = 10000;
+    final var sut = new ConcurrentMultiDHeap<Integer>(2 * numberOfThreads, 4);
+    final var polled = new ConcurrentLinkedQueue<Integer>();
+    final var start = new CountDownLatch(1);
+    final ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+
+    final var workers = new ArrayList<Future<?>>();
+
+    // When
+    for (int thread = 0; thread < numberOfThreads; thread++) {
+      final var offset = thread * numberOfElementsPerThread;
+      workers.add(executor.submit(() -> {
+        await(start);
+        for (int index = 0; index < numberOfElementsPerThread; index++) {
+          sut.offer(offset + index);
+          if (index % 2 == 1) {
+            // relaxed poll may miss an element offered to an already swept stripe, such element
+            // is drained below
+            final var element = sut.poll();
+            if (element != null) {
+              polled.add(element);
+            }
+          }
+        }
+      }));
+    }
+    start.countDown();
+    for (var worker : workers) {
+      worker.get(1, TimeUnit.MINUTES);
+    }
+    executor.shutdown();
+    Integer element;
+    while ((element = sut.poll()) != null) {
+      polled.add(element);
+    }
+
+    // Then
+    Assertions.assertThat(polled).containsExactlyInAnyOrderElementsOf(
+        IntStream.range(0, numberOfThreads * numberOfElementsPerThread).boxed().toList());
+    Assertions.assertThat(sut.isEmpty()).isTrue();
+  }
+
+  @SneakyThrows
+  private static void await(CountDownLatch latch) {
+    latch.await();
+  }
+}
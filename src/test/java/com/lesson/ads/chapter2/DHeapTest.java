@@ -1,7 +1,9 @@
 package com.lesson.ads.chapter2;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Random;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -56,6 +58,107 @@ class DHeapTest {
     Assertions.assertThat(result).isEqualTo(min.orElseThrow());
   }
 
+  @Test
+  void shouldAddCaseFull() {
+    // Given
+    final var minHeap = new DHeap<Integer>(1, 2);
+    minHeap.add(1);
+
+    // When
+    final var result = Assertions.catchThrowable(() -> minHeap.add(2));
+
+    // Then
+    Assertions.assertThat(result).isInstanceOf(NoSuchElementException.class);
+  }
+
+  @Test
+  void shouldAddCaseGrowable() {
+    // Given
+    final var minHeap = new DHeap<Integer>(0, 3, Comparator.naturalOrder(), true);
+
+    // When
+    masterIntList().forEach(minHeap::add);
+
+    // Then
+    Assertions.assertThat(minHeap.size()).isEqualTo(15);
+    Assertions.assertThat(minHeap.pop()).isEqualTo(-20);
+  }
+
+  @Test
+  void shouldHeapify() {
+    // Given
+    final var elements = masterIntList();
+
+    // When
+    final var result = DHeap.heapify(elements, 2, Comparator.reverseOrder());
+
+    // Then
+    Assertions.assertThat(result.size()).isEqualTo(15);
+    Assertions.assertThat(result.pop()).isEqualTo(101);
+  }
+
+  @Test
+  void shouldHeapifyCaseArray() {
+    // Given
+    final var elements = masterIntList().toArray(Integer[]::new);
+
+    // When
+    final var result = DHeap.heapify(elements, 3);
+    result.add(-30);
+
+    // Then
+    Assertions.assertThat(result.size()).isEqualTo(16);
+    Assertions.assertThat(result.pop()).isEqualTo(-30);
+    Assertions.assertThat(result.pop()).isEqualTo(-20);
+    Assertions.assertThat(elements).containsExactlyElementsOf(masterIntList());
+  }
+
+  @Test
+  void shouldThrowExceptionCaseArrayWithNull() {
+    // Given
+    final var elements = new Integer[]{1, null, 3};
+
+    // When
+    final var result = Assertions.catchThrowable(() -> DHeap.heapify(elements, 2));
+
+    // Then
+    Assertions.assertThat(result)
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldHeapifyCaseEmpty() {
+    // Given
+    final var elements = List.<Integer>of();
+
+    // When
+    final var result = DHeap.heapify(elements, 2);
+    result.add(1);
+
+    // Then
+    Assertions.assertThat(result.pop()).isEqualTo(1);
+    Assertions.assertThat(result.isEmpty()).isTrue();
+  }
+
+  @RepeatedTest(value = 20)
+  void shouldPopInOrderRandomHeapifiedDHeap() {
+    // Given
+    final var size = random.nextInt(100000);
+    final var branchFactor = random.nextInt(8) + 2;
+    final var randomIntList = randomIntList(size);
+    final var expected = randomIntList.stream().sorted().toList();
+    final var minHeap = DHeap.heapify(randomIntList, branchFactor);
+
+    // When
+    final var result = new ArrayList<Integer>();
+    while (!minHeap.isEmpty()) {
+      result.add(minHeap.pop());
+    }
+
+    // Then
+    Assertions.assertThat(result).isEqualTo(expected);
+  }
+
   private List<Integer> masterIntList() {
     return Stream.of(10, 101, 6, 1, -20, 20, 78, 12, 34, -8, 55, 90, -1, -1, 0).toList();
   }
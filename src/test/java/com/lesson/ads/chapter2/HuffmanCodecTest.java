@@ -0,0 +1,322 @@
+package com.lesson.ads.chapter2;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import lombok.SneakyThrows;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class HuffmanCodecTest {
+
+  private final Random random = new Random();
+
+  @Test
+  void shouldEncodeDecode() {
+    // Given
+    final var bytes = "lossless".getBytes(StandardCharsets.US_ASCII);
+
+    // When
+    final var result = HuffmanCodec.decode(HuffmanCodec.encode(bytes));
+
+    // Then
+    Assertions.assertThat(result).isEqualTo(bytes);
+  }
+
+  @Test
+  void shouldBuildCanonicalCodeLengths() {
+    // Given
+    final var frequencies = new long[256];
+    frequencies['l'] = 2;
+    frequencies['o'] = 1;
+    frequencies['s'] = 4;
+    frequencies['e'] = 1;
+
+    // When
+    final var result = HuffmanCodec.of(frequencies);
+
+    // Then
+    Assertions.assertThat(result.codeLength('s')).isEqualTo(1);
+    Assertions.assertThat(result.codeLength('l')).isEqualTo(2);
+    Assertions.assertThat(result.codeLength('o')).isEqualTo(3);
+    Assertions.assertThat(result.codeLength('e')).isEqualTo(3);
+    Assertions.assertThat(result.codeLength('x')).isZero();
+  }
+
+  @Test
+  void shouldEncodeDecodeCaseEmpty() {
+    // Given
+    final var bytes = new byte[0];
+
+    // When
+    final var result = HuffmanCodec.decode(HuffmanCodec.encode(bytes));
+
+    // Then
+    Assertions.assertThat(result).isEmpty();
+  }
+
+  @Test
+  void shouldEncodeDecodeCaseOneSymbol() {
+    // Given
+    final var bytes = new byte[100000];
+
+    // When
+    final var encoded = HuffmanCodec.encode(bytes);
+    final var result = HuffmanCodec.decode(encoded);
+
+    // Then
+    Assertions.assertThat(result).isEqualTo(bytes);
+    Assertions.assertThat(encoded.length).isLessThan(bytes.length / 7);
+  }
+
+  @Test
+  void shouldEncodeDecodeCaseLongCodes() {
+    // Given: fibonacci frequencies produce codes longer than lookup table
+    final var output = new ByteArrayOutputStream();
+    long previous = 1;
+    long current = 1;
+    for (int symbol = 0; symbol < 20; symbol++) {
+      for (long index = 0; index < current; index++) {
+        output.write(symbol);
+      }
+      final var next = previous + current;
+      previous = current;
+      current = next;
+    }
+    final var bytes = output.toByteArray();
+
+    // When
+    final var result = HuffmanCodec.decode(HuffmanCodec.encode(bytes));
+
+    // Then
+    Assertions.assertThat(result).isEqualTo(bytes);
+  }
+
+  @Test
+  void shouldEncodeCaseSymbolWithoutCode() {
+    // Given
+    final var frequencies = new long[256];
+    frequencies['a'] = 1;
+    final var sut = HuffmanCodec.of(frequencies);
+    final var input = new ByteArrayInputStream("ab".getBytes(StandardCharsets.US_ASCII));
+
+    // When
+    final var result = Assertions.catchThrowable(
+        () -> sut.encode(input, new ByteArrayOutputStream()));
+
+    // Then
+    Assertions.assertThat(result).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldThrowExceptionCaseMalformedCodeLengths() {
+    // Given
+    // three codes of 1 bit violate Kraft inequality
+    final var encoded = new byte[256 + 4];
+    encoded['a'] = 1;
+    encoded['b'] = 1;
+    encoded['c'] = 1;
+
+    // When
+    final var result = Assertions.catchThrowable(() -> HuffmanCodec.decode(encoded));
+
+    // Then
+    Assertions.assertThat(result)
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageStartingWith("Malformed code lengths");
+  }
+
+  @Test
+  void shouldThrowExceptionCaseMalformedEncodedLength() {
+    // Given
+    final var encoded = ByteBuffer.allocate(256 + 8);
+    encoded.put('a', (byte) 1);
+    encoded.putInt(256, 1);
+    encoded.putInt(260, Integer.MAX_VALUE);
+
+    // When
+    final var result = Assertions.catchThrowable(() -> HuffmanCodec.decode(encoded.array()));
+
+    // Then
+    Assertions.assertThat(result)
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageStartingWith("Malformed block");
+  }
+
+  @Test
+  void shouldEncodeDecodeChannel() {
+    // Given
+    final var bytes = "abracadabra".repeat(10000).getBytes(StandardCharsets.US_ASCII);
+    final var frequencies = HuffmanCodec.frequencies(
+        Channels.newChannel(new ByteArrayInputStream(bytes)));
+    final var encoded = new ByteArrayOutputStream();
+    HuffmanCodec.of(frequencies)
+        .encode(Channels.newChannel(new ByteArrayInputStream(bytes)), encoded);
+    final var decoded = new ByteArrayOutputStream();
+
+    // When
+    HuffmanCodec.decode(
+        Channels.newChannel(new ByteArrayInputStream(encoded.toByteArray())), decoded);
+
+    // Then
+    Assertions.assertThat(decoded.toByteArray()).isEqualTo(bytes);
+    Assertions.assertThat(encoded.size()).isLessThan(bytes.length / 3);
+  }
+
+  @Test
+  void shouldLimitCodeLength() {
+    // Given
+    final var frequencies = fibonacciFrequencies(30);
+
+    // When
+    final var result = HuffmanCodec.of(frequencies, 8);
+
+    // Then
+    var kraftSum = 0D;
+    for (int symbol = 0; symbol < 30; symbol++) {
+      Assertions.assertThat(result.codeLength(symbol)).isBetween(1, 8);
+      kraftSum += Math.pow(2, -result.codeLength(symbol));
+    }
+    Assertions.assertThat(kraftSum).isEqualTo(1D);
+  }
+
+  @Test
+  void shouldLimitCodeLengthCaseNotBindingLimit() {
+    // Given
+    final var frequencies = new long[256];
+    frequencies['l'] = 2;
+    frequencies['o'] = 1;
+    frequencies['s'] = 4;
+    frequencies['e'] = 1;
+
+    // When
+    final var result = HuffmanCodec.of(frequencies, 15);
+
+    // Then
+    Assertions.assertThat(result.codeLength('s')).isEqualTo(1);
+    Assertions.assertThat(result.codeLength('l')).isEqualTo(2);
+    Assertions.assertThat(result.codeLength('o')).isEqualTo(3);
+    Assertions.assertThat(result.codeLength('e')).isEqualTo(3);
+  }
+
+  @Test
+  void shouldLimitCodeLengthCaseTooSmallLimit() {
+    // Given
+    final var frequencies = new long[256];
+    Arrays.fill(frequencies, 0, 5, 1L);
+
+    // When
+    final var result = Assertions.catchThrowable(() -> HuffmanCodec.of(frequencies, 2));
+
+    // Then
+    Assertions.assertThat(result).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldEncodeDecodeCaseLimitedCodeLength() {
+    // Given
+    final var bytes = randomBytes(200000);
+    final var limitedCodec = HuffmanCodec.of(HuffmanCodec.frequencies(
+        new ByteArrayInputStream(bytes)), 9);
+    final var encoded = new ByteArrayOutputStream();
+    limitedCodec.encode(new ByteArrayInputStream(bytes), encoded);
+
+    // When
+    final var result = HuffmanCodec.decode(encoded.toByteArray());
+
+    // Then
+    Assertions.assertThat(result).isEqualTo(bytes);
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldCountFrequenciesParallel(@TempDir Path directory) {
+    // Given
+    final var bytes = randomBytes(1000003);
+    final var path = Files.write(directory.resolve("input"), bytes);
+
+    // When
+    final long[] result;
+    try (var input = FileChannel.open(path)) {
+      result = HuffmanCodec.frequencies(input, 4);
+    }
+
+    // Then
+    Assertions.assertThat(result)
+        .isEqualTo(HuffmanCodec.frequencies(new ByteArrayInputStream(bytes)));
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldEncodeParallel(@TempDir Path directory) {
+    // Given
+    final var bytes = randomBytes(1000003);
+    final var path = Files.write(directory.resolve("input"), bytes);
+    final var encoded = new ByteArrayOutputStream();
+
+    // When
+    try (var input = FileChannel.open(path)) {
+      HuffmanCodec.of(HuffmanCodec.frequencies(input, 4)).encode(input, encoded, 4);
+    }
+
+    // Then
+    Assertions.assertThat(encoded.toByteArray()).isEqualTo(HuffmanCodec.encode(bytes));
+    Assertions.assertThat(HuffmanCodec.decode(encoded.toByteArray())).isEqualTo(bytes);
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldEncodeParallelCaseEmpty(@TempDir Path directory) {
+    // Given
+    final var path = Files.write(directory.resolve("input"), new byte[0]);
+    final var encoded = new ByteArrayOutputStream();
+
+    // When
+    try (var input = FileChannel.open(path)) {
+      HuffmanCodec.of(HuffmanCodec.frequencies(input, 3)).encode(input, encoded, 3);
+    }
+
+    // Then
+    Assertions.assertThat(HuffmanCodec.decode(encoded.toByteArray())).isEmpty();
+  }
+
+  @RepeatedTest(value = 20)
+  void shouldEncodeDecodeRandomBytes() {
+    // Given
+    final var bytes = randomBytes(random.nextInt(300000));
+
+    // When
+    final var result = HuffmanCodec.decode(HuffmanCodec.encode(bytes));
+
+    // Then
+    Assertions.assertThat(result).isEqualTo(bytes);
+  }
+
+  private long[] fibonacciFrequencies(int numberOfSymbols) {
+    final var frequencies = new long[256];
+    frequencies[0] = 1;
+    frequencies[1] = 1;
+    for (int symbol = 2; symbol < numberOfSymbols; symbol++) {
+      frequencies[symbol] = frequencies[symbol - 1] + frequencies[symbol - 2];
+    }
+    return frequencies;
+  }
+
+  private byte[] randomBytes(int size) {
+    final var bytes = new byte[size];
+    final var alphabetSize = random.nextInt(256) + 1;
+    for (int index = 0; index < bytes.length; index++) {
+      bytes[index] = (byte) (Math.abs(random.nextGaussian()) * alphabetSize / 3);
+    }
+    return bytes;
+  }
+}
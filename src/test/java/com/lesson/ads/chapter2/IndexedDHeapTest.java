@@ -0,0 +1,186 @@
+package com.lesson.ads.chapter2;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+class IndexedDHeapTest {
+
+  private final Random random = new Random();
+
+  @Test
+  void shouldPop() {
+    // Given
+    final var sut = new IndexedDHeap<String, Integer>(5, 3);
+    sut.add("A", 10);
+    sut.add("B", -5);
+    sut.add("C", 7);
+
+    // When
+    final var result = sut.pop();
+
+    // Then
+    Assertions.assertThat(result).isEqualTo("B");
+    Assertions.assertThat(sut.size()).isEqualTo(2);
+    Assertions.assertThat(sut.contains("B")).isFalse();
+  }
+
+  @Test
+  void shouldPopCaseMaxHeap() {
+    // Given
+    final var sut = new IndexedDHeap<String, Integer>(5, 2, Comparator.reverseOrder());
+    sut.add("A", 10);
+    sut.add("B", -5);
+    sut.add("C", 7);
+
+    // When
+    final var result = sut.pop();
+
+    // Then
+    Assertions.assertThat(result).isEqualTo("A");
+  }
+
+  @Test
+  void shouldDecreaseKey() {
+    // Given
+    final var sut = new IndexedDHeap<String, Integer>(5, 2);
+    sut.add("A", 10);
+    sut.add("B", 5);
+    sut.add("C", 7);
+
+    // When
+    sut.decreaseKey("A", 1);
+
+    // Then
+    Assertions.assertThat(sut.priority("A")).isEqualTo(1);
+    Assertions.assertThat(sut.pop()).isEqualTo("A");
+  }
+
+  @Test
+  void shouldDecreaseKeyCaseGreaterPriority() {
+    // Given
+    final var sut = new IndexedDHeap<String, Integer>(5, 2);
+    sut.add("A", 10);
+
+    // When
+    final var result = Assertions.catchThrowable(() -> sut.decreaseKey("A", 11));
+
+    // Then
+    Assertions.assertThat(result).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldUpdatePriority() {
+    // Given
+    final var sut = new IndexedDHeap<String, Integer>(5, 2);
+    sut.add("A", 1);
+    sut.add("B", 5);
+    sut.add("C", 7);
+
+    // When
+    sut.updatePriority("A", 100);
+
+    // Then
+    Assertions.assertThat(sut.pop()).isEqualTo("B");
+    Assertions.assertThat(sut.pop()).isEqualTo("C");
+    Assertions.assertThat(sut.pop()).isEqualTo("A");
+  }
+
+  @Test
+  void shouldRemove() {
+    // Given
+    final var sut = new IndexedDHeap<String, Integer>(5, 2);
+    sut.add("A", 1);
+    sut.add("B", 5);
+    sut.add("C", 7);
+
+    // When
+    final var result = sut.remove("A");
+
+    // Then
+    Assertions.assertThat(result).isTrue();
+    Assertions.assertThat(sut.contains("A")).isFalse();
+    Assertions.assertThat(sut.pop()).isEqualTo("B");
+  }
+
+  @Test
+  void shouldRemoveCaseNotPresent() {
+    // Given
+    final var sut = new IndexedDHeap<String, Integer>(5, 2);
+
+    // When
+    final var result = sut.remove("A");
+
+    // Then
+    Assertions.assertThat(result).isFalse();
+  }
+
+  @Test
+  void shouldAddCaseAlreadyPresent() {
+    // Given
+    final var sut = new IndexedDHeap<String, Integer>(5, 2);
+    sut.add("A", 1);
+
+    // When
+    final var result = Assertions.catchThrowable(() -> sut.add("A", 2));
+
+    // Then
+    Assertions.assertThat(result).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldPopCaseEmpty() {
+    // Given
+    final var sut = new IndexedDHeap<String, Integer>(5, 2);
+
+    // When
+    final var result = Assertions.catchThrowable(sut::pop);
+
+    // Then
+    Assertions.assertThat(result).isInstanceOf(NoSuchElementException.class);
+  }
+
+  @RepeatedTest(value = 20)
+  void shouldPopInPriorityOrderRandomIndexedDHeap() {
+    // Given
+    final var size = random.nextInt(10000) + 1;
+    final var branchFactor = random.nextInt(8) + 2;
+    final var sut = new IndexedDHeap<Integer, Integer>(size, branchFactor);
+    final var elementToPriority = new HashMap<Integer, Integer>();
+    for (int element = 0; element < size; element++) {
+      final var priority = random.nextInt();
+      sut.add(element, priority);
+      elementToPriority.put(element, priority);
+    }
+    for (int operation = 0; operation < size; operation++) {
+      final var element = random.nextInt(size);
+      if (!sut.contains(element)) {
+        continue;
+      }
+      if (random.nextBoolean()) {
+        final var priority = random.nextInt();
+        sut.updatePriority(element, priority);
+        elementToPriority.put(element, priority);
+      } else {
+        sut.remove(element);
+        elementToPriority.remove(element);
+      }
+    }
+    final var expected = new ArrayList<>(elementToPriority.values());
+    expected.sort(Comparator.naturalOrder());
+
+    // When
+    final var result = new ArrayList<Integer>();
+    while (!sut.isEmpty()) {
+      result.add(elementToPriority.get(sut.pop()));
+    }
+
+    // Then
+    Assertions.assertThat(result).isEqualTo(expected);
+  }
+}
@@ -0,0 +1,92 @@
+package com.lesson.ads.chapter2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+class IntDoubleDHeapTest {
+
+  private final Random random = new Random();
+
+  @Test
+  void shouldPop() {
+    // Given
+    final var sut = new IntDoubleDHeap(5, 4);
+    sut.add(1, 10D);
+    sut.add(2, -5D);
+    sut.add(3, 7D);
+
+    // When
+    final var result = sut.pop();
+
+    // Then
+    Assertions.assertThat(result).isEqualTo(2);
+    Assertions.assertThat(sut.peek()).isEqualTo(3);
+    Assertions.assertThat(sut.peekPriority()).isEqualTo(7D);
+    Assertions.assertThat(sut.size()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldPopCaseEmpty() {
+    // Given
+    final var sut = new IntDoubleDHeap(5, 2);
+
+    // When
+    final var result = Assertions.catchThrowable(sut::pop);
+
+    // Then
+    Assertions.assertThat(result).isInstanceOf(NoSuchElementException.class);
+  }
+
+  @Test
+  void shouldAddCaseFull() {
+    // Given
+    final var sut = new IntDoubleDHeap(1, 2);
+    sut.add(1, 1D);
+
+    // When
+    final var result = Assertions.catchThrowable(() -> sut.add(2, 2D));
+
+    // Then
+    Assertions.assertThat(result).isInstanceOf(NoSuchElementException.class);
+  }
+
+  @Test
+  void shouldAddCaseNanPriority() {
+    // Given
+    final var sut = new IntDoubleDHeap(1, 2);
+
+    // When
+    final var result = Assertions.catchThrowable(() -> sut.add(1, Double.NaN));
+
+    // Then
+    Assertions.assertThat(result).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @RepeatedTest(value = 20)
+  void shouldPopInPriorityOrderRandomIntDoubleDHeap() {
+    // Given
+    final var size = random.nextInt(100000) + 1;
+    final var branchFactor = random.nextInt(8) + 2;
+    final var sut = new IntDoubleDHeap(size, branchFactor);
+    final var priorities = new double[size];
+    for (int element = 0; element < size; element++) {
+      priorities[element] = random.nextDouble();
+      sut.add(element, priorities[element]);
+    }
+    final var expected = Arrays.stream(priorities).sorted().boxed().toList();
+
+    // When
+    final var result = new ArrayList<Double>();
+    while (!sut.isEmpty()) {
+      result.add(priorities[sut.pop()]);
+    }
+
+    // Then
+    Assertions.assertThat(result).isEqualTo(expected);
+  }
+}
@@ -0,0 +1,130 @@
+package com.lesson.ads.chapter3;
+
+import java.util.ArrayList;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import lombok.SneakyThrows;
+import org.assertj.core.api.Assertions;
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentRandomizedTreapTest {
+
+  @Test
+  void shouldGet() {
+    // Given
+    final var sut = masterConcurrentRandomizedTreap();
+
+    // When
+    final var result = sut.get("K5");
+
+    // Then
+    Assertions.assertThat(result).get().isEqualTo("K5");
+  }
+
+  @Test
+  void shouldGetMinMax() {
+    // Given
+    final var sut = masterConcurrentRandomizedTreap();
+
+    // When
+    final var result = sut.min();
+
+    // Then
+    Assertions.assertThat(result).get().isEqualTo("K1");
+    Assertions.assertThat(sut.max()).get().isEqualTo("K9");
+  }
+
+  @Test
+  void shouldDelete() {
+    // Given
+    final var sut = masterConcurrentRandomizedTreap();
+    final var snapshot = sut.snapshot();
+
+    // When
+    final var result = sut.delete("K5");
+
+    // Then
+    Assertions.assertThat(result).isEqualTo("K5");
+    Assertions.assertThat(sut.get("K5")).isEmpty();
+    Assertions.assertThat(snapshot.getElement("K5")).isPresent();
+  }
+
+  @Test
+  void shouldDeleteCaseNonExistentKey() {
+    // Given
+    final var sut = masterConcurrentRandomizedTreap();
+
+    // When
+    final ThrowingCallable result = () -> sut.delete("K");
+
+    // Then
+    Assertions.assertThatThrownBy(result).isInstanceOf(NoSuchElementException.class);
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldPutGetConcurrently() {
+    // Given
+    final var numberOfThreads = 8;
+    final var numberOfKeysPerThread = 2000;
+    final var sut = new ConcurrentRandomizedTreap<Integer>();
+    final var start = new CountDownLatch(1);
+    final var executor = Executors.newFixedThreadPool(numberOfThreads);
+
+    final var workers = new ArrayList<Future<?>>();
+
+    // When
+    for (int thread = 0; thread < numberOfThreads; thread++) {
+      final var offset = thread * numberOfKeysPerThread;
+      workers.add(executor.submit(() -> {
+        await(start);
+        for (int key = offset; key < offset + numberOfKeysPerThread; key++) {
+          sut.put(key);
+          Assertions.assertThat(sut.get(key)).get().isEqualTo(key);
+          if (key % 2 == 1) {
+            sut.delete(key);
+          }
+        }
+      }));
+    }
+    start.countDown();
+    // rethrows failed assertion of a worker as cause of ExecutionException
+    for (var worker : workers) {
+      worker.get(1, TimeUnit.MINUTES);
+    }
+    executor.shutdown();
+
+    // Then
+    final var result = new ArrayList<Integer>();
+    sut.forEach(result::add);
+    Assertions.assertThat(result).containsExactlyElementsOf(
+        IntStream.range(0, numberOfThreads * numberOfKeysPerThread)
+            .filter(key -> key % 2 == 0)
+            .boxed()
+            .toList());
+  }
+
+  @SneakyThrows
+  private static void await(CountDownLatch latch) {
+    latch.await();
+  }
+
+  private ConcurrentRandomizedTreap<String> masterConcurrentRandomizedTreap() {
+    var treap = new ConcurrentRandomizedTreap<String>();
+    treap.put("K1");
+    treap.put("K2");
+    treap.put("K3");
+    treap.put("K4");
+    treap.put("K5");
+    treap.put("K6");
+    treap.put("K7");
+    treap.put("K8");
+    treap.put("K9");
+    return treap;
+  }
+}
@@ -0,0 +1,158 @@
+package com.lesson.ads.chapter3;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+import org.assertj.core.api.Assertions;
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+class LongDoubleTreapTest {
+
+  @Test
+  void shouldGetPriority() {
+    // Given
+    final var sut = masterTreap();
+
+    // When
+    final var result = sut.getPriority(5L);
+
+    // Then
+    Assertions.assertThat(result).hasValue(1D);
+    Assertions.assertThat(sut.getPriority(10L)).isEmpty();
+  }
+
+  @Test
+  void shouldGetMinKey() {
+    // Given
+    final var sut = masterTreap();
+
+    // When
+    final var result = sut.minKey();
+
+    // Then
+    Assertions.assertThat(result).hasValue(1L);
+  }
+
+  @Test
+  void shouldGetMaxKey() {
+    // Given
+    final var sut = masterTreap();
+
+    // When
+    final var result = sut.maxKey();
+
+    // Then
+    Assertions.assertThat(result).hasValue(9L);
+  }
+
+  @Test
+  void shouldGetTopPriorityKey() {
+    // Given
+    final var sut = masterTreap();
+
+    // When
+    final var result = sut.topPriorityKey();
+
+    // Then
+    Assertions.assertThat(result).hasValue(5L);
+  }
+
+  @Test
+  void shouldGetKeysCaseEmptyTreap() {
+    // Given
+    final var sut = new LongDoubleTreap();
+
+    // When
+    final var result = sut.topPriorityKey();
+
+    // Then
+    Assertions.assertThat(result).isEmpty();
+    Assertions.assertThat(sut.minKey()).isEmpty();
+    Assertions.assertThat(sut.maxKey()).isEmpty();
+  }
+
+  @Test
+  void shouldPutCasePriorityUpdate() {
+    // Given
+    final var sut = masterTreap();
+
+    // When
+    sut.put(9L, 0D);
+
+    // Then
+    Assertions.assertThat(sut.topPriorityKey()).hasValue(9L);
+    Assertions.assertThat(sut.size()).isEqualTo(9);
+  }
+
+  @Test
+  void shouldDelete() {
+    // Given
+    final var sut = masterTreap();
+
+    // When
+    final var result = sut.delete(5L);
+
+    // Then
+    Assertions.assertThat(result).isEqualTo(1D);
+    Assertions.assertThat(sut.contains(5L)).isFalse();
+    Assertions.assertThat(sut.topPriorityKey()).hasValue(3L);
+    Assertions.assertThat(sut.size()).isEqualTo(8);
+  }
+
+  @Test
+  void shouldDeleteCaseNonExistentKey() {
+    // Given
+    final var sut = masterTreap();
+
+    // When
+    final ThrowingCallable result = () -> sut.delete(10L);
+
+    // Then
+    Assertions.assertThatThrownBy(result).isInstanceOf(NoSuchElementException.class);
+  }
+
+  @RepeatedTest(value = 20)
+  void shouldPutDeleteRandomTreap() {
+    // Given
+    final var random = new Random();
+    final var sut = new LongDoubleTreap(0);
+    final var expected = new TreeMap<Long, Double>();
+
+    // When
+    for (int index = 0; index < 20000; index++) {
+      final var key = (long) random.nextInt(2000);
+      if (expected.containsKey(key) && random.nextBoolean()) {
+        Assertions.assertThat(sut.delete(key)).isEqualTo(expected.remove(key));
+      } else {
+        final var priority = random.nextDouble();
+        sut.put(key, priority);
+        expected.put(key, priority);
+      }
+    }
+
+    // Then
+    Assertions.assertThat(sut.size()).isEqualTo(expected.size());
+    Assertions.assertThat(sut.minKey()).hasValue(expected.firstKey());
+    Assertions.assertThat(sut.maxKey()).hasValue(expected.lastKey());
+    final var topPriority = expected.values().stream().min(Double::compare).orElseThrow();
+    Assertions.assertThat(sut.getPriority(sut.topPriorityKey().orElseThrow())).hasValue(topPriority);
+    expected.forEach((key, priority) ->
+        Assertions.assertThat(sut.getPriority(key)).hasValue(priority));
+  }
+
+  private LongDoubleTreap masterTreap() {
+    var sut = new LongDoubleTreap();
+    sut.put(5L, 1D);
+    sut.put(3L, 2D);
+    sut.put(7L, 3D);
+    sut.put(2L, 4D);
+    sut.put(4L, 5D);
+    sut.put(6L, 6D);
+    sut.put(8L, 7D);
+    sut.put(1L, 8D);
+    sut.put(9L, 9D);
+    return sut;
+  }
+}
@@ -0,0 +1,149 @@
+package com.lesson.ads.chapter3;
+
+import com.lesson.ads.chapter3.Treap.Entry;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+import org.assertj.core.api.Assertions;
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+class PersistentTreapTest {
+
+  @Test
+  void shouldGetElement() {
+    // Given
+    final var sut = masterTreap(Comparator.naturalOrder());
+
+    // When
+    final var result = sut.getElement("K5");
+
+    // Then
+    Assertions.assertThat(result).get()
+        .returns("K5", Entry::key)
+        .returns(1, Entry::priority);
+    Assertions.assertThat(sut.getElement("K")).isEmpty();
+  }
+
+  @Test
+  void shouldGetMinMaxKeyElement() {
+    // Given
+    final var sut = masterTreap(Comparator.naturalOrder());
+
+    // When
+    final var result = sut.getMinKeyElement();
+
+    // Then
+    Assertions.assertThat(result).get().returns("K1", Entry::key);
+    Assertions.assertThat(sut.getMaxKeyElement()).get().returns("K9", Entry::key);
+  }
+
+  @Test
+  void shouldGetTopPriorityElement() {
+    // Given
+    final var sut = masterTreap(Comparator.reverseOrder());
+
+    // When
+    final var result = sut.getTopPriorityElement();
+
+    // Then
+    Assertions.assertThat(result).get().returns("K9", Entry::key);
+  }
+
+  @Test
+  void shouldPutKeepingSnapshot() {
+    // Given
+    final var snapshot = masterTreap(Comparator.naturalOrder());
+
+    // When
+    final var result = snapshot.put("K9", 0).put("K10", 10);
+
+    // Then
+    Assertions.assertThat(result.getTopPriorityElement()).get().returns("K9", Entry::key);
+    Assertions.assertThat(result.size()).isEqualTo(10);
+    Assertions.assertThat(snapshot.getTopPriorityElement()).get().returns("K5", Entry::key);
+    Assertions.assertThat(snapshot.getElement("K10")).isEmpty();
+    Assertions.assertThat(snapshot.size()).isEqualTo(9);
+  }
+
+  @Test
+  void shouldDeleteKeepingSnapshot() {
+    // Given
+    final var snapshot = masterTreap(Comparator.naturalOrder());
+
+    // When
+    final var result = snapshot.delete("K5");
+
+    // Then
+    Assertions.assertThat(result.getElement("K5")).isEmpty();
+    Assertions.assertThat(result.getTopPriorityElement()).get().returns("K3", Entry::key);
+    Assertions.assertThat(snapshot.getElement("K5")).isPresent();
+  }
+
+  @Test
+  void shouldDeleteCaseNonExistentKey() {
+    // Given
+    final var sut = masterTreap(Comparator.naturalOrder());
+
+    // When
+    final ThrowingCallable result = () -> sut.delete("K");
+
+    // Then
+    Assertions.assertThatThrownBy(result).isInstanceOf(NoSuchElementException.class);
+  }
+
+  @RepeatedTest(value = 20)
+  void shouldIterateSnapshotsRandomTreap() {
+    // Given
+    final var random = new Random();
+    var sut = PersistentTreap.<Integer, Integer>empty();
+    final var expected = new TreeMap<Integer, Integer>();
+    final var snapshots = new ArrayList<PersistentTreap<Integer, Integer>>();
+    final var expectedSnapshots = new ArrayList<TreeMap<Integer, Integer>>();
+
+    // When
+    for (int index = 0; index < 2000; index++) {
+      final var key = random.nextInt(500);
+      if (expected.containsKey(key) && random.nextBoolean()) {
+        sut = sut.delete(key);
+        expected.remove(key);
+      } else {
+        final var priority = random.nextInt();
+        sut = sut.put(key, priority);
+        expected.put(key, priority);
+      }
+      if (index % 100 == 0) {
+        snapshots.add(sut);
+        expectedSnapshots.add(new TreeMap<>(expected));
+      }
+    }
+
+    // Then
+    for (int index = 0; index < snapshots.size(); index++) {
+      final var entries = new ArrayList<Entry<Integer, Integer>>();
+      snapshots.get(index).forEach(entries::add);
+      Assertions.assertThat(entries).containsExactlyElementsOf(
+          expectedSnapshots.get(index).entrySet().stream()
+              .map(entry -> new Entry<>(entry.getKey(), entry.getValue()))
+              .toList());
+      Assertions.assertThat(snapshots.get(index).size())
+          .isEqualTo(expectedSnapshots.get(index).size());
+    }
+  }
+
+  private PersistentTreap<String, Integer> masterTreap(Comparator<Integer> priorityComparator) {
+    return PersistentTreap.<String, Integer>empty(priorityComparator)
+        .put("K5", 1)
+        .put("K3", 2)
+        .put("K7", 3)
+        .put("K2", 4)
+        .put("K4", 5)
+        .put("K6", 6)
+        .put("K8", 7)
+        .put("K1", 8)
+        .put("K9", 9);
+  }
+}
@@ -1,5 +1,7 @@
 package com.lesson.ads.chapter3;
 
+import java.util.ArrayList;
+import java.util.stream.IntStream;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -55,6 +57,72 @@ class RandomizedTreapTest {
     Assertions.assertThat(result).isEqualTo("K5");
   }
 
+  @Test
+  void shouldIterate() {
+    // Given
+    final var sut = masterRandomizedTreap();
+
+    // When
+    final var result = new ArrayList<String>();
+    sut.forEach(result::add);
+
+    // Then
+    Assertions.assertThat(result)
+        .containsExactly("K1", "K2", "K3", "K4", "K5", "K6", "K7", "K8", "K9");
+  }
+
+  @Test
+  void shouldStreamRange() {
+    // Given
+    final var sut = masterRandomizedTreap();
+
+    // When
+    final var result = sut.range("K3", "K6");
+
+    // Then
+    Assertions.assertThat(result).containsExactly("K3", "K4", "K5");
+  }
+
+  @Test
+  void shouldStreamHeadRange() {
+    // Given
+    final var sut = masterRandomizedTreap();
+
+    // When
+    final var result = sut.headRange("K3");
+
+    // Then
+    Assertions.assertThat(result).containsExactly("K1", "K2");
+  }
+
+  @Test
+  void shouldStreamTailRange() {
+    // Given
+    final var sut = masterRandomizedTreap();
+
+    // When
+    final var result = sut.tailRange("K8");
+
+    // Then
+    Assertions.assertThat(result).containsExactly("K8", "K9");
+  }
+
+  @Test
+  void shouldCreateOfSorted() {
+    // Given
+    final var keys = IntStream.range(0, 100000).boxed().toList();
+
+    // When
+    final var result = RandomizedTreap.ofSorted(keys);
+
+    // Then
+    Assertions.assertThat(result.size()).isEqualTo(100000);
+    Assertions.assertThat(result.min()).get().isEqualTo(0);
+    Assertions.assertThat(result.max()).get().isEqualTo(99999);
+    Assertions.assertThat(result.range(500, 505)).containsExactly(500, 501, 502, 503, 504);
+    Assertions.assertThat(result.stream()).containsExactlyElementsOf(keys);
+  }
+
   private RandomizedTreap<String> masterRandomizedTreap() {
     var randomizedTreap = new RandomizedTreap<String>();
     randomizedTreap.put("K1");
@@ -1,11 +1,19 @@
 package com.lesson.ads.chapter3;
 
+import com.lesson.ads.chapter3.Treap.Aggregation;
 import com.lesson.ads.chapter3.Treap.Entry;
 import com.lesson.ads.chapter3.Treap.TreapNode;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
 import org.assertj.core.api.Assertions;
 import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.RepeatedTest;
 import org.junit.jupiter.api.Test;
 
 class TreapTest {
@@ -574,6 +582,498 @@ class TreapTest {
         .isInstanceOf(NoSuchElementException.class);
   }
 
+  @Test
+  void shouldSplit() {
+    // Given
+    final var sut = masterMinTreap();
+
+    // When
+    final var result = sut.split("K4");
+
+    // Then
+    Assertions.assertThat(keys(result.left())).containsExactly("K1", "K2", "K3");
+    Assertions.assertThat(keys(result.right()))
+        .containsExactly("K4", "K5", "K6", "K7", "K8", "K9");
+    Assertions.assertThat(sut.asNodes()).isNull();
+  }
+
+  @Test
+  void shouldSplitCaseNonExistentKey() {
+    // Given
+    final var sut = masterMinTreap();
+
+    // When
+    final var result = sut.split("K");
+
+    // Then
+    Assertions.assertThat(keys(result.left())).isEmpty();
+    Assertions.assertThat(keys(result.right())).hasSize(9);
+  }
+
+  @Test
+  void shouldMerge() {
+    // Given
+    final var split = masterMinTreap().split("K4");
+    final var sut = split.right();
+
+    // When
+    sut.merge(split.left());
+
+    // Then
+    Assertions.assertThat(keys(sut))
+        .containsExactly("K1", "K2", "K3", "K4", "K5", "K6", "K7", "K8", "K9");
+    Assertions.assertThat(sut.getTopPriorityElement()).get()
+        .returns("K5", Entry::key);
+    Assertions.assertThat(keys(split.left())).isEmpty();
+  }
+
+  @Test
+  void shouldMergeCaseOverlappingKeys() {
+    // Given
+    final var sut = masterMinTreap();
+    final var that = new Treap<String, Integer>();
+    that.put("K45", 1);
+
+    // When
+    final ThrowingCallable result = () -> sut.merge(that);
+
+    // Then
+    Assertions.assertThatThrownBy(result)
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldDeleteRange() {
+    // Given
+    final var sut = masterMinTreap();
+
+    // When
+    final var result = sut.deleteRange("K3", "K7");
+
+    // Then
+    Assertions.assertThat(keys(result)).containsExactly("K3", "K4", "K5", "K6");
+    Assertions.assertThat(keys(sut)).containsExactly("K1", "K2", "K7", "K8", "K9");
+    Assertions.assertThat(sut.getTopPriorityElement()).get()
+        .returns("K7", Entry::key);
+  }
+
+  @Test
+  void shouldUnion() {
+    // Given
+    final var sut = treap("K1", 5, "K3", 2, "K5", 7);
+    final var that = treap("K2", 1, "K3", 9, "K4", 3);
+
+    // When
+    sut.union(that);
+
+    // Then
+    Assertions.assertThat(keys(sut)).containsExactly("K1", "K2", "K3", "K4", "K5");
+    Assertions.assertThat(sut.getElement("K3")).get().returns(2, Entry::priority);
+    Assertions.assertThat(sut.getTopPriorityElement()).get().returns("K2", Entry::key);
+    Assertions.assertThat(keys(that)).isEmpty();
+  }
+
+  @Test
+  void shouldIntersection() {
+    // Given
+    final var sut = treap("K1", 5, "K3", 2, "K5", 7);
+    final var that = treap("K2", 1, "K3", 9, "K5", 3);
+
+    // When
+    sut.intersection(that);
+
+    // Then
+    Assertions.assertThat(keys(sut)).containsExactly("K3", "K5");
+    Assertions.assertThat(sut.getElement("K5")).get().returns(3, Entry::priority);
+  }
+
+  @Test
+  void shouldDifference() {
+    // Given
+    final var sut = treap("K1", 5, "K3", 2, "K5", 7);
+    final var that = treap("K2", 1, "K3", 9, "K5", 3);
+
+    // When
+    sut.difference(that);
+
+    // Then
+    Assertions.assertThat(keys(sut)).containsExactly("K1");
+  }
+
+  @RepeatedTest(value = 20)
+  void shouldSetOperationsRandomTreap() {
+    // Given
+    final var random = new Random();
+    final var left = new Treap<Integer, Integer>();
+    final var right = new Treap<Integer, Integer>();
+    final var leftKeys = new TreeSet<Integer>();
+    final var rightKeys = new TreeSet<Integer>();
+    for (int index = 0; index < 1000; index++) {
+      final var leftKey = random.nextInt(2000);
+      final var rightKey = random.nextInt(2000);
+      left.put(leftKey, random.nextInt());
+      right.put(rightKey, random.nextInt());
+      leftKeys.add(leftKey);
+      rightKeys.add(rightKey);
+    }
+    final var operation = random.nextInt(3);
+
+    // When
+    final var expected = new TreeSet<>(leftKeys);
+    if (operation == 0) {
+      left.union(right);
+      expected.addAll(rightKeys);
+    } else if (operation == 1) {
+      left.intersection(right);
+      expected.retainAll(rightKeys);
+    } else {
+      left.difference(right);
+      expected.removeAll(rightKeys);
+    }
+
+    // Then
+    Assertions.assertThat(keys(left)).containsExactlyElementsOf(expected);
+  }
+
+  @Test
+  void shouldDeleteCaseSingleElement() {
+    // Given
+    final var sut = new Treap<String, Integer>();
+    sut.put("K1", 1);
+
+    // When
+    final var result = sut.delete("K1");
+
+    // Then
+    Assertions.assertThat(result).returns("K1", Entry::key);
+    Assertions.assertThat(sut.size()).isZero();
+    Assertions.assertThat(sut.asNodes()).isNull();
+  }
+
+  @Test
+  void shouldGetSize() {
+    // Given
+    final var sut = masterMinTreap();
+    sut.delete("K3");
+
+    // When
+    final var result = sut.size();
+
+    // Then
+    Assertions.assertThat(result).isEqualTo(8);
+  }
+
+  @Test
+  void shouldGetRank() {
+    // Given
+    final var sut = masterMinTreap();
+
+    // When
+    final var result = sut.rank("K4");
+
+    // Then
+    Assertions.assertThat(result).isEqualTo(3);
+    Assertions.assertThat(sut.rank("K")).isZero();
+    Assertions.assertThat(sut.rank("K99")).isEqualTo(9);
+  }
+
+  @Test
+  void shouldSelect() {
+    // Given
+    final var sut = masterMinTreap();
+
+    // When
+    final var result = sut.select(3);
+
+    // Then
+    Assertions.assertThat(result).get()
+        .returns("K4", Entry::key)
+        .returns(5, Entry::priority);
+    Assertions.assertThat(sut.select(9)).isEmpty();
+    Assertions.assertThat(sut.select(-1)).isEmpty();
+  }
+
+  @Test
+  void shouldCountRange() {
+    // Given
+    final var sut = masterMinTreap();
+
+    // When
+    final var result = sut.countRange("K3", "K7");
+
+    // Then
+    Assertions.assertThat(result).isEqualTo(4);
+  }
+
+  @Test
+  void shouldAggregateRange() {
+    // Given
+    final var sut = new Treap<String, Integer>(
+        Comparator.naturalOrder(),
+        new Aggregation<String, Integer, String>("", (key, priority) -> key, String::concat));
+    sut.put("K5", 1);
+    sut.put("K3", 2);
+    sut.put("K7", 3);
+    sut.put("K2", 4);
+    sut.put("K4", 5);
+    sut.put("K6", 6);
+    sut.put("K8", 7);
+    sut.put("K1", 8);
+    sut.put("K9", 9);
+    sut.put("K6", 0);
+    sut.delete("K5");
+
+    // When
+    final String result = sut.aggregateRange("K2", "K8");
+
+    // Then
+    Assertions.assertThat(result).isEqualTo("K2K3K4K6K7");
+    Assertions.assertThat(sut.<String>aggregateRange("K", "K1")).isEmpty();
+  }
+
+  @Test
+  void shouldAggregateRangeCaseNoAggregation() {
+    // Given
+    final var sut = masterMinTreap();
+
+    // When
+    final ThrowingCallable result = () -> sut.aggregateRange("K1", "K2");
+
+    // Then
+    Assertions.assertThatThrownBy(result)
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @RepeatedTest(value = 20)
+  void shouldOrderStatisticsRandomTreap() {
+    // Given
+    final var random = new Random();
+    final var sut = new Treap<Integer, Integer>(
+        Comparator.naturalOrder(),
+        new Aggregation<Integer, Integer, Long>(0L, (key, priority) -> (long) key, Long::sum));
+    final var keys = new TreeSet<Integer>();
+    for (int index = 0; index < 2000; index++) {
+      final var key = random.nextInt(1000);
+      if (keys.contains(key) && random.nextBoolean()) {
+        sut.delete(key);
+        keys.remove(key);
+      } else {
+        sut.put(key, random.nextInt());
+        keys.add(key);
+      }
+    }
+    final var other = sut.split(random.nextInt(1000));
+    other.left().merge(other.right());
+    final var treap = other.left();
+    final var from = random.nextInt(1000);
+    final var to = from + random.nextInt(1000 - from + 1);
+
+    // When
+    final var count = treap.countRange(from, to);
+    final Long sum = treap.aggregateRange(from, to);
+
+    // Then
+    final var range = keys.subSet(from, to);
+    Assertions.assertThat(treap.size()).isEqualTo(keys.size());
+    Assertions.assertThat(count).isEqualTo(range.size());
+    Assertions.assertThat(sum).isEqualTo(range.stream().mapToLong(Integer::longValue).sum());
+    Assertions.assertThat(treap.rank(from)).isEqualTo(keys.headSet(from).size());
+    if (!range.isEmpty()) {
+      Assertions.assertThat(treap.select(keys.headSet(from).size())).get()
+          .returns(range.first(), Entry::key);
+    }
+  }
+
+  @Test
+  void shouldIterate() {
+    // Given
+    final var sut = masterMinTreap();
+
+    // When
+    final var result = new ArrayList<String>();
+    sut.forEach(entry -> result.add(entry.key()));
+
+    // Then
+    Assertions.assertThat(result)
+        .containsExactly("K1", "K2", "K3", "K4", "K5", "K6", "K7", "K8", "K9");
+  }
+
+  @Test
+  void shouldIterateCaseEmptyTreap() {
+    // Given
+    final var sut = new Treap<String, Integer>();
+
+    // When
+    final var result = sut.iterator();
+
+    // Then
+    Assertions.assertThat(result.hasNext()).isFalse();
+  }
+
+  @Test
+  void shouldStreamRange() {
+    // Given
+    final var sut = masterMinTreap();
+
+    // When
+    final var result = sut.range("K25", "K7").toList();
+
+    // Then
+    Assertions.assertThat(result)
+        .extracting(Entry::key)
+        .containsExactly("K3", "K4", "K5", "K6");
+    Assertions.assertThat(result.get(0).priority()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldStreamHeadRange() {
+    // Given
+    final var sut = masterMinTreap();
+
+    // When
+    final var result = sut.headRange("K3");
+
+    // Then
+    Assertions.assertThat(result).extracting(Entry::key).containsExactly("K1", "K2");
+  }
+
+  @Test
+  void shouldStreamTailRange() {
+    // Given
+    final var sut = masterMinTreap();
+
+    // When
+    final var result = sut.tailRange("K8");
+
+    // Then
+    Assertions.assertThat(result).extracting(Entry::key).containsExactly("K8", "K9");
+  }
+
+  @RepeatedTest(value = 20)
+  void shouldStreamRangeParallelRandomTreap() {
+    // Given
+    final var random = new Random();
+    final var sut = new Treap<Integer, Integer>();
+    final var keys = new TreeSet<Integer>();
+    for (int index = 0; index < 5000; index++) {
+      final var key = random.nextInt(10000);
+      sut.put(key, random.nextInt());
+      keys.add(key);
+    }
+    final var from = random.nextInt(10000);
+    final var to = from + random.nextInt(10000 - from + 1);
+
+    // When
+    final var result = sut.range(from, to).parallel().map(Entry::key).toList();
+
+    // Then
+    Assertions.assertThat(result).containsExactlyElementsOf(keys.subSet(from, to));
+    Assertions.assertThat(sut.spliterator().estimateSize()).isEqualTo(keys.size());
+  }
+
+  @Test
+  void shouldCreateOfSorted() {
+    // Given
+    final var entries = List.of(
+        new Entry<>("K1", 8), new Entry<>("K2", 4), new Entry<>("K3", 2),
+        new Entry<>("K4", 5), new Entry<>("K5", 1), new Entry<>("K6", 6),
+        new Entry<>("K7", 3), new Entry<>("K8", 7), new Entry<>("K9", 9));
+
+    // When
+    final var result = Treap.ofSorted(entries);
+
+    // Then
+    assertSameStructure(result.asNodes(), masterMinTreap().asNodes());
+    Assertions.assertThat(keys(result))
+        .containsExactly("K1", "K2", "K3", "K4", "K5", "K6", "K7", "K8", "K9");
+    Assertions.assertThat(result.size()).isEqualTo(9);
+    Assertions.assertThat(result.rank("K7")).isEqualTo(6);
+  }
+
+  @Test
+  void shouldCreateOfSortedCaseUnsortedKeys() {
+    // Given
+    final var entries = List.of(new Entry<>("K2", 1), new Entry<>("K1", 2));
+
+    // When
+    final ThrowingCallable result = () -> Treap.ofSorted(entries);
+
+    // Then
+    Assertions.assertThatThrownBy(result)
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @RepeatedTest(value = 20)
+  void shouldCreateOfSortedRandomTreap() {
+    // Given
+    final var random = new Random();
+    final var aggregation =
+        new Aggregation<Integer, Integer, Long>(0L, (key, priority) -> (long) key, Long::sum);
+    final var expected = new Treap<Integer, Integer>(Comparator.naturalOrder(), aggregation);
+    final var entries = new ArrayList<Entry<Integer, Integer>>();
+    final var priorities = new ArrayList<>(IntStream.range(0, 5000).boxed().toList());
+    Collections.shuffle(priorities, random);
+    for (int key = 0; key < 5000; key++) {
+      if (random.nextBoolean()) {
+        final var priority = priorities.get(key);
+        expected.put(key, priority);
+        entries.add(new Entry<>(key, priority));
+      }
+    }
+
+    // When
+    final var result = Treap.ofSorted(entries, Comparator.naturalOrder(), aggregation);
+
+    // Then
+    assertSameStructure(result.asNodes(), expected.asNodes());
+    Assertions.assertThat(keys(result)).containsExactlyElementsOf(keys(expected));
+    Assertions.assertThat(result.<Long>aggregateRange(1000, 4000))
+        .isEqualTo(expected.<Long>aggregateRange(1000, 4000));
+  }
+
+  private <K extends Comparable<K>> void assertSameStructure(
+      Treap<K, Integer>.TreapNode actual, Treap<K, Integer>.TreapNode expected) {
+    if (expected == null) {
+      Assertions.assertThat(actual).isNull();
+      return;
+    }
+    Assertions.assertThat(actual)
+        .returns(expected.getKey(), TreapNode::getKey)
+        .returns(expected.getPriority(), TreapNode::getPriority)
+        .returns(expected.getSize(), TreapNode::getSize);
+    assertSameStructure(actual.getLeft(), expected.getLeft());
+    assertSameStructure(actual.getRight(), expected.getRight());
+  }
+
+  private <K extends Comparable<K>> List<K> keys(Treap<K, Integer> treap) {
+    final var keys = new ArrayList<K>();
+    keys(treap.asNodes(), null, keys);
+    return keys;
+  }
+
+  // collects keys in order and validates parent links and priority order
+  private <K extends Comparable<K>> void keys(
+      Treap<K, Integer>.TreapNode node, Treap<K, Integer>.TreapNode parent, List<K> keys) {
+    if (node == null) {
+      return;
+    }
+    Assertions.assertThat(node.getParent()).isSameAs(parent);
+    if (parent != null) {
+      Assertions.assertThat(node.getPriority()).isGreaterThanOrEqualTo(parent.getPriority());
+    }
+    keys(node.getLeft(), node, keys);
+    keys.add(node.getKey());
+    keys(node.getRight(), node, keys);
+  }
+
+  private Treap<String, Integer> treap(Object... keyPriorities) {
+    final var treap = new Treap<String, Integer>();
+    for (int index = 0; index < keyPriorities.length; index += 2) {
+      treap.put((String) keyPriorities[index], (Integer) keyPriorities[index + 1]);
+    }
+    return treap;
+  }
+
   private Treap<String, Integer> masterMinTreap() {
     return masterTreap(Comparator.naturalOrder());
   }
@@ -1,5 +1,6 @@
 package com.lesson.ads.chapter4;
 
+import java.util.ArrayList;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -107,4 +108,207 @@ class BitSetTest {
         .isEqualTo("1000000000000000000000000000000000000000000000000000000000000001\n"
             + "1100000000000000000000000000000000000000000000000000000000000000");
   }
-}
\ No newline at end of file
+
+  @Test
+  void shouldSetRange() {
+    // Given
+    final var sut = new BitSet(200);
+
+    // When
+    sut.set(60, 130);
+
+    // Then
+    Assertions.assertThat(sut)
+        .returns(false, bitSet -> bitSet.get(59))
+        .returns(true, bitSet -> bitSet.get(60))
+        .returns(true, bitSet -> bitSet.get(129))
+        .returns(false, bitSet -> bitSet.get(130))
+        .returns(70, BitSet::cardinality);
+  }
+
+  @Test
+  void shouldSetRangeCaseSingleWord() {
+    // Given
+    final var sut = new BitSet(128);
+
+    // When
+    sut.set(64, 128);
+
+    // Then
+    Assertions.assertThat(sut.words())
+        .containsExactly(0L, -1L);
+  }
+
+  @Test
+  void shouldUnsetRange() {
+    // Given
+    final var sut = new BitSet(200);
+    sut.set(0, 200);
+
+    // When
+    sut.unset(60, 130);
+
+    // Then
+    Assertions.assertThat(sut)
+        .returns(true, bitSet -> bitSet.get(59))
+        .returns(false, bitSet -> bitSet.get(60))
+        .returns(false, bitSet -> bitSet.get(129))
+        .returns(true, bitSet -> bitSet.get(130))
+        .returns(130, BitSet::cardinality);
+  }
+
+  @Test
+  void shouldAnd() {
+    // Given
+    final var sut = bitSet(128, 1, 64, 100);
+    final var that = bitSet(128, 1, 100, 127);
+
+    // When
+    sut.and(that);
+
+    // Then
+    Assertions.assertThat(setBits(sut)).containsExactly(1, 100);
+  }
+
+  @Test
+  void shouldOr() {
+    // Given
+    final var sut = bitSet(128, 1, 64, 100);
+    final var that = bitSet(128, 1, 100, 127);
+
+    // When
+    sut.or(that);
+
+    // Then
+    Assertions.assertThat(setBits(sut)).containsExactly(1, 64, 100, 127);
+  }
+
+  @Test
+  void shouldXor() {
+    // Given
+    final var sut = bitSet(128, 1, 64, 100);
+    final var that = bitSet(128, 1, 100, 127);
+
+    // When
+    sut.xor(that);
+
+    // Then
+    Assertions.assertThat(setBits(sut)).containsExactly(64, 127);
+  }
+
+  @Test
+  void shouldAndNot() {
+    // Given
+    final var sut = bitSet(128, 1, 64, 100);
+    final var that = bitSet(128, 1, 100, 127);
+
+    // When
+    sut.andNot(that);
+
+    // Then
+    Assertions.assertThat(setBits(sut)).containsExactly(64);
+  }
+
+  @Test
+  void shouldThrowExceptionCaseDifferentSize() {
+    // Given
+    final var sut = new BitSet(128);
+    final var that = new BitSet(64);
+
+    // When
+    final var result = Assertions.catchThrowable(() -> sut.or(that));
+
+    // Then
+    Assertions.assertThat(result)
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldGetCardinality() {
+    // Given
+    final var sut = bitSet(128, 0, 63, 64, 65);
+
+    // When
+    final var result = sut.cardinality();
+
+    // Then
+    Assertions.assertThat(result).isEqualTo(4);
+  }
+
+  @Test
+  void shouldGetNextSetBit() {
+    // Given
+    final var sut = bitSet(300, 3, 200);
+
+    // When Then
+    Assertions.assertThat(sut)
+        .returns(3, bitSet -> bitSet.nextSetBit(0))
+        .returns(3, bitSet -> bitSet.nextSetBit(3))
+        .returns(200, bitSet -> bitSet.nextSetBit(4))
+        .returns(-1, bitSet -> bitSet.nextSetBit(201))
+        .returns(-1, bitSet -> bitSet.nextSetBit(300));
+  }
+
+  @Test
+  void shouldGetNextClearBit() {
+    // Given
+    final var sut = new BitSet(130);
+    sut.set(0, 70);
+    sut.set(71, 130);
+
+    // When Then
+    Assertions.assertThat(sut)
+        .returns(70, bitSet -> bitSet.nextClearBit(0))
+        .returns(-1, bitSet -> bitSet.nextClearBit(71));
+  }
+
+  @Test
+  void shouldForEachSetBit() {
+    // Given
+    final var sut = bitSet(200, 0, 63, 64, 199);
+    final var result = new ArrayList<Integer>();
+
+    // When
+    sut.forEachSetBit(result::add);
+
+    // Then
+    Assertions.assertThat(result).containsExactly(0, 63, 64, 199);
+  }
+
+  @Test
+  void shouldGetCaseLongBitIndexes() {
+    // Given
+    final var size = (1L << 31) + 1;
+    final var sut = new BitSet(size);
+    sut.set(size - 1);
+    final var result = new ArrayList<Long>();
+
+    // When
+    sut.forEachSetBitIndex(result::add);
+
+    // Then
+    Assertions.assertThat(result).containsExactly(size - 1);
+    Assertions.assertThat(sut)
+        .returns(size, BitSet::bitSize)
+        .returns(1L, BitSet::bitCount)
+        .returns(size - 1, bitSet -> bitSet.nextSetBit(0L))
+        .returns(-1L, bitSet -> bitSet.nextClearBit(size - 1));
+    Assertions.assertThatThrownBy(sut::size).isInstanceOf(ArithmeticException.class);
+    Assertions.assertThatThrownBy(() -> sut.nextSetBit(0))
+        .isInstanceOf(ArithmeticException.class);
+  }
+
+  private static BitSet bitSet(int size, int... bitIndexes) {
+    final var bitSet = new BitSet(size);
+    for (var bitIndex : bitIndexes) {
+      bitSet.set(bitIndex);
+    }
+    return bitSet;
+  }
+
+  private static ArrayList<Integer> setBits(BitSet bitSet) {
+    final var setBits = new ArrayList<Integer>();
+    bitSet.forEachSetBit(setBits::add);
+    return setBits;
+  }
+}
@@ -0,0 +1,92 @@
+package com.lesson.ads.chapter4;
+
+import java.nio.charset.StandardCharsets;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class BlockedBloomFilterTest {
+
+  @Test
+  void shouldCheckContains() {
+    // Given
+    final var key = "key".getBytes(StandardCharsets.UTF_8);
+    final var sut = BlockedBloomFilter.create(1024, 3, 0);
+    sut.add(key);
+
+    // When
+    final var result = sut.contains(key);
+
+    // Then
+    Assertions.assertThat(result).isTrue();
+  }
+
+  @Test
+  void shouldCheckContainsCaseAnotherKey() {
+    // Given
+    final var key = "key".getBytes(StandardCharsets.UTF_8);
+    final var anotherKey = "another key".getBytes(StandardCharsets.UTF_8);
+    final var sut = BlockedBloomFilter.create(1024, 3, 0);
+    sut.add(anotherKey);
+
+    // When
+    final var result = sut.contains(key);
+
+    // Then
+    Assertions.assertThat(result).isFalse();
+  }
+
+  @Test
+  void shouldCheckContainsCaseApproximatedPrecision() {
+    // Given
+    final var numberOfKeys = 10000;
+    final var sut = BlockedBloomFilter.approximate(0, 0.99D, numberOfKeys);
+    for (int key = 0; key < numberOfKeys; key++) {
+      sut.add(FilterKeys.key(key));
+    }
+
+    // When
+    var falsePositives = 0;
+    for (int key = numberOfKeys; key < 2 * numberOfKeys; key++) {
+      falsePositives += sut.contains(FilterKeys.key(key)) ? 1 : 0;
+    }
+
+    // Then
+    for (int key = 0; key < numberOfKeys; key++) {
+      Assertions.assertThat(sut.contains(FilterKeys.key(key))).isTrue();
+    }
+    Assertions.assertThat(falsePositives).isLessThan(numberOfKeys / 25);
+  }
+
+  @Test
+  void shouldCreate() {
+    // When
+    final var result = BlockedBloomFilter.create(1000, 3, 0);
+
+    // Then
+    Assertions.assertThat(result)
+        .returns(1024L, BlockedBloomFilter::numberOfBits)
+        .returns(2, BlockedBloomFilter::numberOfBlocks)
+        .returns(3, BlockedBloomFilter::numberOfBitHashFunctions);
+  }
+
+  @Test
+  void shouldApproximate() {
+    // When
+    final var result = BlockedBloomFilter.approximate(0, 0.9D, 100);
+
+    // Then
+    Assertions.assertThat(result)
+        .returns(512L, BlockedBloomFilter::numberOfBits)
+        .returns(3, BlockedBloomFilter::numberOfBitHashFunctions);
+  }
+
+  @Test
+  void shouldThrowExceptionCaseTooManyBitHashFunctions() {
+    // When
+    final var result = Assertions.catchThrowable(() -> BlockedBloomFilter.create(1024, 17, 0));
+
+    // Then
+    Assertions.assertThat(result)
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -1,11 +1,21 @@
 package com.lesson.ads.chapter4;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
 import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class BloomFilterTest {
 
+  @TempDir
+  Path directory;
+
   @Test
   void shouldCheckContains() {
     // Given
@@ -62,4 +72,317 @@ class BloomFilterTest {
         .returns(479, BloomFilter::numberOfBits)
         .returns(3, BloomFilter::numberOfBitHashFunctions);
   }
-}
\ No newline at end of file
+
+  @Test
+  void shouldGetBitHashFunctions() {
+    // Given
+    final var key = "key".getBytes(StandardCharsets.UTF_8);
+    final var sut = BloomFilter.create(100, 3, 7);
+    sut.add(key);
+
+    // When
+    final var result = sut.bitHashFunctions();
+
+    // Then
+    final var bitSet = new BitSet(100);
+    result.forEach(bitHashFunction -> bitSet.set(bitHashFunction.hash(key)));
+    Assertions.assertThat(result).hasSize(3);
+    for (int anotherKey = 0; anotherKey < 1000; anotherKey++) {
+      final var bytes = FilterKeys.key(anotherKey);
+      Assertions.assertThat(sut.contains(bytes)).isEqualTo(
+          result.stream().allMatch(bitHashFunction -> bitSet.get(bitHashFunction.hash(bytes))));
+    }
+  }
+
+  @Test
+  void shouldCheckContainsCaseApproximatedPrecision() {
+    // Given
+    final var numberOfKeys = 10000;
+    final var sut = BloomFilter.approximate(0, 0.99D, numberOfKeys);
+    for (int key = 0; key < numberOfKeys; key++) {
+      sut.add(FilterKeys.key(key));
+    }
+
+    // When
+    var falsePositives = 0;
+    for (int key = numberOfKeys; key < 2 * numberOfKeys; key++) {
+      falsePositives += sut.contains(FilterKeys.key(key)) ? 1 : 0;
+    }
+
+    // Then
+    for (int key = 0; key < numberOfKeys; key++) {
+      Assertions.assertThat(sut.contains(FilterKeys.key(key))).isTrue();
+    }
+    Assertions.assertThat(falsePositives).isLessThan(numberOfKeys / 50);
+  }
+
+  @Test
+  void shouldContainsAll() {
+    // Given
+    final var keys = new byte[1000][];
+    for (int key = 0; key < keys.length; key++) {
+      keys[key] = FilterKeys.key(key);
+    }
+    final var addedKeys = new byte[500][];
+    System.arraycopy(keys, 0, addedKeys, 0, addedKeys.length);
+    final var sut = BloomFilter.approximate(0, 0.999D, keys.length);
+    sut.addAll(addedKeys);
+    final var result = new boolean[keys.length];
+
+    // When
+    sut.containsAll(keys, result);
+
+    // Then
+    for (int key = 0; key < keys.length; key++) {
+      Assertions.assertThat(result[key]).isEqualTo(sut.contains(keys[key]));
+    }
+    for (int key = 0; key < addedKeys.length; key++) {
+      Assertions.assertThat(result[key]).isTrue();
+    }
+  }
+
+  @Test
+  void shouldContainsAllCaseByteBufferSlices() {
+    // Given
+    final var key = "key".getBytes(StandardCharsets.UTF_8);
+    final var anotherKey = "another key".getBytes(StandardCharsets.UTF_8);
+    final var keys = ByteBuffer.allocateDirect(64);
+    keys.put(anotherKey).put(key).flip();
+    final var offsets = new int[] {0, anotherKey.length, anotherKey.length + key.length};
+    final var sut = BloomFilter.create(1000, 3, 0);
+    sut.add(key);
+    final var result = new boolean[2];
+
+    // When
+    sut.containsAll(keys, offsets, result);
+
+    // Then
+    Assertions.assertThat(result).containsExactly(false, true);
+  }
+
+  @Test
+  void shouldAddAllCaseByteBufferSlices() {
+    // Given
+    final var key = "key".getBytes(StandardCharsets.UTF_8);
+    final var anotherKey = "another key".getBytes(StandardCharsets.UTF_8);
+    final var keys = ByteBuffer.wrap("another keykey".getBytes(StandardCharsets.UTF_8));
+    final var sut = BloomFilter.create(1000, 3, 0);
+
+    // When
+    sut.addAll(keys, new int[] {0, anotherKey.length, anotherKey.length + key.length});
+
+    // Then
+    Assertions.assertThat(sut)
+        .returns(true, filter -> filter.contains(key))
+        .returns(true, filter -> filter.contains(anotherKey));
+  }
+
+  @Test
+  void shouldContainsAllCaseLongKeys() {
+    // Given
+    final var sut = BloomFilter.create(1000, 3, 0);
+    sut.addAll(new long[] {1L, Long.MAX_VALUE});
+    final var result = new boolean[3];
+
+    // When
+    sut.containsAll(new long[] {1L, 2L, Long.MAX_VALUE}, result);
+
+    // Then
+    Assertions.assertThat(result).containsExactly(true, false, true);
+  }
+
+  @Test
+  void shouldContainsAllCaseIntKeys() {
+    // Given
+    final var sut = BloomFilter.create(1000, 3, 0);
+    sut.addAll(new int[] {1, Integer.MIN_VALUE});
+    final var result = new boolean[3];
+
+    // When
+    sut.containsAll(new int[] {1, 2, Integer.MIN_VALUE}, result);
+
+    // Then
+    Assertions.assertThat(result).containsExactly(true, false, true);
+    Assertions.assertThat(sut.contains(Integer.MIN_VALUE)).isTrue();
+  }
+
+  @Test
+  void shouldThrowExceptionCaseOffsetsBeyondLimit() {
+    // Given
+    final var keys = ByteBuffer.wrap("another keykey".getBytes(StandardCharsets.UTF_8));
+    keys.limit(10);
+    final var sut = BloomFilter.create(1000, 3, 0);
+
+    // When
+    final var result = Assertions.catchThrowable(
+        () -> sut.addAll(keys, new int[] {0, 11, 14}));
+
+    // Then
+    Assertions.assertThat(result)
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldThrowExceptionCaseOffsetsBeforePosition() {
+    // Given
+    final var keys = ByteBuffer.wrap("another keykey".getBytes(StandardCharsets.UTF_8));
+    keys.position(11);
+    final var sut = BloomFilter.create(1000, 3, 0);
+
+    // When
+    final var result = Assertions.catchThrowable(
+        () -> sut.containsAll(keys, new int[] {0, 11, 14}, new boolean[2]));
+
+    // Then
+    Assertions.assertThat(result)
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldCheckContainsCasePrimitiveKeys() {
+    // Given
+    final var sut = BloomFilter.create(1000, 3, 0);
+    sut.add(42L);
+    sut.add(7);
+
+    // When
+    final var result = sut.contains(ByteBuffer.allocate(8)
+        .order(ByteOrder.LITTLE_ENDIAN).putLong(42L).array());
+
+    // Then
+    Assertions.assertThat(result).isTrue();
+    Assertions.assertThat(sut)
+        .returns(true, filter -> filter.contains(42L))
+        .returns(true, filter -> filter.contains(7))
+        .returns(true, filter -> filter.contains(new byte[] {7, 0, 0, 0}))
+        .returns(false, filter -> filter.contains(8));
+  }
+
+  @Test
+  void shouldThrowExceptionCaseShortResult() {
+    // Given
+    final var sut = BloomFilter.create(1000, 3, 0);
+
+    // When
+    final var result = Assertions.catchThrowable(
+        () -> sut.containsAll(new long[] {1L, 2L}, new boolean[1]));
+
+    // Then
+    Assertions.assertThat(result)
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldOpenSaved() {
+    // Given
+    final var path = directory.resolve("bloom-filter");
+    final var key = "key".getBytes(StandardCharsets.UTF_8);
+    final var anotherKey = "another key".getBytes(StandardCharsets.UTF_8);
+    final var bloomFilter = BloomFilter.create(1000, 3, 7);
+    bloomFilter.add(key);
+    bloomFilter.save(path);
+
+    // When
+    final var result = BloomFilter.open(path);
+
+    // Then
+    Assertions.assertThat(result)
+        .returns(1000, BloomFilter::numberOfBits)
+        .returns(3, BloomFilter::numberOfBitHashFunctions)
+        .returns(true, filter -> filter.contains(key))
+        .returns(false, filter -> filter.contains(anotherKey));
+  }
+
+  @Test
+  void shouldOpenCaseKeyAddedToOpened() {
+    // Given
+    final var path = directory.resolve("bloom-filter");
+    final var key = "key".getBytes(StandardCharsets.UTF_8);
+    BloomFilter.create(1000, 3, 7).save(path);
+    final var opened = BloomFilter.open(path);
+    opened.add(key);
+    opened.flush();
+
+    // When
+    final var result = BloomFilter.open(path);
+
+    // Then
+    Assertions.assertThat(result.contains(key)).isTrue();
+  }
+
+  @Test
+  void shouldSaveCaseFileOpened() throws Exception {
+    // Given
+    final var path = directory.resolve("bloom-filter");
+    final var key = "key".getBytes(StandardCharsets.UTF_8);
+    final var anotherKey = "another key".getBytes(StandardCharsets.UTF_8);
+    BloomFilter.create(1000, 3, 7).save(path);
+    final var opened = BloomFilter.open(path);
+    final var bloomFilter = BloomFilter.create(1000, 3, 7);
+    bloomFilter.add(anotherKey);
+
+    // When
+    bloomFilter.save(path);
+
+    // Then
+    opened.add(key);
+    Assertions.assertThat(opened.contains(key)).isTrue();
+    Assertions.assertThat(BloomFilter.open(path))
+        .returns(false, filter -> filter.contains(key))
+        .returns(true, filter -> filter.contains(anotherKey));
+    try (Stream<Path> files = Files.list(directory)) {
+      Assertions.assertThat(files).containsExactly(path);
+    }
+  }
+
+  @Test
+  void shouldOpenSavedCaseMaxNumberOfBits() {
+    // Given
+    // words of the largest filter which fits a single mapping take 2 GiB, saving copies them
+    Assumptions.assumeTrue(Runtime.getRuntime().maxMemory() > (5L << 30));
+    final var path = directory.resolve("bloom-filter");
+    final var key = "key".getBytes(StandardCharsets.UTF_8);
+    final var bloomFilter = BloomFilter.create(8L * (Integer.MAX_VALUE & ~7), 3, 7);
+    bloomFilter.add(key);
+    bloomFilter.save(path);
+
+    // When
+    final var result = BloomFilter.open(path);
+
+    // Then
+    Assertions.assertThat(result)
+        .returns(8L * (Integer.MAX_VALUE & ~7), BloomFilter::bitSize)
+        .returns(true, filter -> filter.contains(key));
+  }
+
+  @Test
+  void shouldThrowExceptionCaseSaveTooManyBits() {
+    // Given
+    Assumptions.assumeTrue(Runtime.getRuntime().maxMemory() > (3L << 30));
+    final var path = directory.resolve("bloom-filter");
+    final var bloomFilter = BloomFilter.create(8L * (Integer.MAX_VALUE & ~7) + 1, 3, 7);
+
+    // When
+    final var result = Assertions.catchThrowable(() -> bloomFilter.save(path));
+
+    // Then
+    Assertions.assertThat(result)
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageStartingWith("Size should be in range");
+    Assertions.assertThat(path).doesNotExist();
+  }
+
+  @Test
+  void shouldThrowExceptionCaseNotBloomFilterFile() throws Exception {
+    // Given
+    final var path = directory.resolve("bloom-filter");
+    Files.write(path, new byte[] {1, 2, 3});
+
+    // When
+    final var result = Assertions.catchThrowable(() -> BloomFilter.open(path));
+
+    // Then
+    Assertions.assertThat(result)
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
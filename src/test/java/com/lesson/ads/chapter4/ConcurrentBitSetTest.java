@@ -0,0 +1,104 @@
+package com.lesson.ads.chapter4;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.SneakyThrows;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentBitSetTest {
+
+  @Test
+  void shouldSetBit() {
+    // Given
+    final var sut = new ConcurrentBitSet(128);
+
+    // When
+    final var result = sut.set(63);
+
+    // Then
+    Assertions.assertThat(result).isTrue();
+    Assertions.assertThat(sut)
+        .returns(true, bitSet -> bitSet.get(63))
+        .returns(false, bitSet -> bitSet.set(63))
+        .returns(1, ConcurrentBitSet::cardinality);
+  }
+
+  @Test
+  void shouldUnsetBit() {
+    // Given
+    final var sut = new ConcurrentBitSet(128);
+    sut.set(63);
+
+    // When
+    final var result = sut.unset(63);
+
+    // Then
+    Assertions.assertThat(result).isTrue();
+    Assertions.assertThat(sut)
+        .returns(false, bitSet -> bitSet.get(63))
+        .returns(false, bitSet -> bitSet.unset(63));
+  }
+
+  @Test
+  void shouldGetWords() {
+    // Given
+    final var sut = new ConcurrentBitSet(128);
+    sut.set(0);
+    sut.set(63);
+    sut.set(64);
+    sut.set(65);
+
+    // When
+    final var result = sut.words();
+
+    // Then
+    Assertions.assertThat(result)
+        .containsExactly(-9223372036854775807L, 3L);
+  }
+
+  @Test
+  void shouldSetConcurrently() throws Exception {
+    // Given
+    final var numberOfThreads = 8;
+    final var size = 1 << 16;
+    final var sut = new ConcurrentBitSet(size);
+    final var numberOfSetBits = new AtomicInteger();
+    final var start = new CountDownLatch(1);
+    final var executor = Executors.newFixedThreadPool(numberOfThreads);
+
+    final var workers = new ArrayList<Future<?>>();
+
+    // When
+    for (int thread = 0; thread < numberOfThreads; thread++) {
+      final var offset = thread;
+      workers.add(executor.submit(() -> {
+        await(start);
+        // threads interleave bits of every word and set every bit twice
+        for (int bitIndex = offset % 4; bitIndex < size; bitIndex += 4) {
+          if (sut.set(bitIndex)) {
+            numberOfSetBits.incrementAndGet();
+          }
+        }
+      }));
+    }
+    start.countDown();
+    for (var worker : workers) {
+      worker.get(1, TimeUnit.MINUTES);
+    }
+    executor.shutdown();
+
+    // Then
+    Assertions.assertThat(sut.cardinality()).isEqualTo(size);
+    Assertions.assertThat(numberOfSetBits).hasValue(size);
+  }
+
+  @SneakyThrows
+  private static void await(CountDownLatch latch) {
+    latch.await();
+  }
+}
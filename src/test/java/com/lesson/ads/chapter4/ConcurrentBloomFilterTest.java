@@ -0,0 +1,94 @@
+package com.lesson.ads.chapter4;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import lombok.SneakyThrows;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentBloomFilterTest {
+
+  @Test
+  void shouldCheckContains() {
+    // Given
+    final var key = "key".getBytes(StandardCharsets.UTF_8);
+    final var sut = ConcurrentBloomFilter.create(100, 3, 0);
+
+    // When
+    final var result = sut.add(key);
+
+    // Then
+    Assertions.assertThat(result).isTrue();
+    Assertions.assertThat(sut)
+        .returns(true, bloomFilter -> bloomFilter.contains(key))
+        .returns(false, bloomFilter -> bloomFilter.add(key));
+  }
+
+  @Test
+  void shouldCheckContainsCaseAnotherKey() {
+    // Given
+    final var key = "key".getBytes(StandardCharsets.UTF_8);
+    final var anotherKey = "another key".getBytes(StandardCharsets.UTF_8);
+    final var sut = ConcurrentBloomFilter.create(100, 3, 0);
+    sut.add(anotherKey);
+
+    // When
+    final var result = sut.contains(key);
+
+    // Then
+    Assertions.assertThat(result).isFalse();
+  }
+
+  @Test
+  void shouldApproximate() {
+    // When
+    final var result = ConcurrentBloomFilter.approximate(0, 0.9D, 100);
+
+    // Then
+    Assertions.assertThat(result)
+        .returns(479, ConcurrentBloomFilter::numberOfBits)
+        .returns(3, ConcurrentBloomFilter::numberOfBitHashFunctions);
+  }
+
+  @Test
+  void shouldAddConcurrently() throws Exception {
+    // Given
+    final var numberOfThreads = 8;
+    final var numberOfKeysPerThread = 5000;
+    final var sut = ConcurrentBloomFilter.approximate(0, 0.99D, 64);
+    final var start = new CountDownLatch(1);
+    final var executor = Executors.newFixedThreadPool(numberOfThreads);
+
+    final var workers = new ArrayList<Future<?>>();
+
+    // When
+    for (int thread = 0; thread < numberOfThreads; thread++) {
+      final var offset = thread * numberOfKeysPerThread;
+      workers.add(executor.submit(() -> {
+        await(start);
+        for (int key = offset; key < offset + numberOfKeysPerThread; key++) {
+          sut.add(FilterKeys.key(key));
+        }
+      }));
+    }
+    start.countDown();
+    for (var worker : workers) {
+      worker.get(1, TimeUnit.MINUTES);
+    }
+    executor.shutdown();
+
+    // Then
+    for (int key = 0; key < numberOfThreads * numberOfKeysPerThread; key++) {
+      Assertions.assertThat(sut.contains(FilterKeys.key(key))).isTrue();
+    }
+  }
+
+  @SneakyThrows
+  private static void await(CountDownLatch latch) {
+    latch.await();
+  }
+}
@@ -0,0 +1,137 @@
+package com.lesson.ads.chapter4;
+
+import java.nio.charset.StandardCharsets;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class CountingBloomFilterTest {
+
+  @Test
+  void shouldCheckContains() {
+    // Given
+    final var key = "key".getBytes(StandardCharsets.UTF_8);
+    final var sut = CountingBloomFilter.create(100, 3, 0);
+    sut.add(key);
+
+    // When
+    final var result = sut.contains(key);
+
+    // Then
+    Assertions.assertThat(result).isTrue();
+  }
+
+  @Test
+  void shouldRemove() {
+    // Given
+    final var key = "key".getBytes(StandardCharsets.UTF_8);
+    final var anotherKey = "another key".getBytes(StandardCharsets.UTF_8);
+    final var sut = CountingBloomFilter.create(100, 3, 0);
+    sut.add(key);
+    sut.add(key);
+    sut.add(anotherKey);
+
+    // When
+    final var result = sut.remove(key);
+
+    // Then
+    Assertions.assertThat(result).isTrue();
+    Assertions.assertThat(sut)
+        .returns(true, bloomFilter -> bloomFilter.contains(key))
+        .returns(true, bloomFilter -> bloomFilter.remove(key))
+        .returns(false, bloomFilter -> bloomFilter.contains(key))
+        .returns(true, bloomFilter -> bloomFilter.contains(anotherKey));
+  }
+
+  @Test
+  void shouldRemoveCaseAbsentKey() {
+    // Given
+    final var key = "key".getBytes(StandardCharsets.UTF_8);
+    final var anotherKey = "another key".getBytes(StandardCharsets.UTF_8);
+    final var sut = CountingBloomFilter.create(100, 3, 0);
+    sut.add(anotherKey);
+
+    // When
+    final var result = sut.remove(key);
+
+    // Then
+    Assertions.assertThat(result).isFalse();
+    Assertions.assertThat(sut.contains(anotherKey)).isTrue();
+  }
+
+  @Test
+  void shouldRemoveCaseNeverAddedKey() {
+    // Given
+    // with two counters both probes of the never added key hit the first counter, while the
+    // key probes both counters
+    final var key = "key 0".getBytes(StandardCharsets.UTF_8);
+    final var neverAddedKey = "key 4".getBytes(StandardCharsets.UTF_8);
+    final var sut = CountingBloomFilter.create(2, 2, 0);
+    sut.add(key);
+
+    // When
+    final var result = sut.remove(neverAddedKey);
+
+    // Then
+    Assertions.assertThat(result).isFalse();
+    Assertions.assertThat(sut)
+        .returns(true, bloomFilter -> bloomFilter.contains(key))
+        .returns(true, bloomFilter -> bloomFilter.remove(key))
+        .returns(false, bloomFilter -> bloomFilter.contains(key))
+        .returns(false, bloomFilter -> bloomFilter.contains(neverAddedKey));
+  }
+
+  @Test
+  void shouldRemoveCaseSaturatedCounter() {
+    // Given
+    final var key = "key".getBytes(StandardCharsets.UTF_8);
+    final var sut = CountingBloomFilter.create(100, 3, 0);
+    for (int count = 0; count < 20; count++) {
+      sut.add(key);
+    }
+
+    // When
+    for (int count = 0; count < 20; count++) {
+      sut.remove(key);
+    }
+
+    // Then
+    Assertions.assertThat(sut.contains(key)).isTrue();
+  }
+
+  @Test
+  void shouldRemoveMany() {
+    // Given
+    final var numberOfKeys = 10000;
+    final var sut = CountingBloomFilter.approximate(0, 0.99D, numberOfKeys);
+    for (int key = 0; key < numberOfKeys; key++) {
+      sut.add(FilterKeys.key(key));
+    }
+
+    // When
+    for (int key = 0; key < numberOfKeys; key += 2) {
+      sut.remove(FilterKeys.key(key));
+    }
+
+    // Then
+    var removedContained = 0;
+    for (int key = 0; key < numberOfKeys; key++) {
+      if (key % 2 == 1) {
+        Assertions.assertThat(sut.contains(FilterKeys.key(key))).isTrue();
+      } else {
+        removedContained += sut.contains(FilterKeys.key(key)) ? 1 : 0;
+      }
+    }
+    Assertions.assertThat(removedContained).isLessThan(numberOfKeys / 50);
+  }
+
+  @Test
+  void shouldApproximate() {
+    // When
+    final var result = CountingBloomFilter.approximate(0, 0.9D, 100);
+
+    // Then
+    Assertions.assertThat(result)
+        .returns(479L, CountingBloomFilter::numberOfCounters)
+        .returns(3, CountingBloomFilter::numberOfBitHashFunctions);
+  }
+}
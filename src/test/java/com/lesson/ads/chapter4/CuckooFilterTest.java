@@ -0,0 +1,139 @@
+package com.lesson.ads.chapter4;
+
+import java.nio.charset.StandardCharsets;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+class CuckooFilterTest {
+
+  @Test
+  void shouldCheckContains() {
+    // Given
+    final var key = "key".getBytes(StandardCharsets.UTF_8);
+    final var anotherKey = "another key".getBytes(StandardCharsets.UTF_8);
+    final var sut = CuckooFilter.create(16, 0);
+
+    // When
+    final var result = sut.add(key);
+
+    // Then
+    Assertions.assertThat(result).isTrue();
+    Assertions.assertThat(sut)
+        .returns(true, filter -> filter.contains(key))
+        .returns(false, filter -> filter.contains(anotherKey))
+        .returns(1L, CuckooFilter::numberOfKeys);
+  }
+
+  @Test
+  void shouldRemove() {
+    // Given
+    final var key = "key".getBytes(StandardCharsets.UTF_8);
+    final var anotherKey = "another key".getBytes(StandardCharsets.UTF_8);
+    final var sut = CuckooFilter.create(16, 0);
+    sut.add(key);
+    sut.add(anotherKey);
+
+    // When
+    final var result = sut.remove(key);
+
+    // Then
+    Assertions.assertThat(result).isTrue();
+    Assertions.assertThat(sut)
+        .returns(false, filter -> filter.contains(key))
+        .returns(true, filter -> filter.contains(anotherKey))
+        .returns(false, filter -> filter.remove(key))
+        .returns(1L, CuckooFilter::numberOfKeys);
+  }
+
+  @Test
+  void shouldAddCaseFull() {
+    // Given
+    final var sut = CuckooFilter.create(4, 0);
+
+    // When
+    var numberOfAddedKeys = 0;
+    while (sut.add(FilterKeys.key(numberOfAddedKeys))) {
+      numberOfAddedKeys++;
+    }
+
+    // Then
+    for (int key = 0; key < numberOfAddedKeys; key++) {
+      Assertions.assertThat(sut.contains(FilterKeys.key(key))).isTrue();
+    }
+    Assertions.assertThat(sut.remove(FilterKeys.key(0))).isTrue();
+    Assertions.assertThat(sut.add(FilterKeys.key(numberOfAddedKeys))).isTrue();
+  }
+
+  @Test
+  void shouldAddMany() {
+    // Given
+    final var numberOfKeys = 100000;
+    final var sut = CuckooFilter.approximate(0, 0.99D, numberOfKeys);
+
+    // When
+    for (int key = 0; key < numberOfKeys; key++) {
+      Assertions.assertThat(sut.add(FilterKeys.key(key))).isTrue();
+    }
+
+    // Then
+    var falsePositives = 0;
+    for (int key = numberOfKeys; key < 2 * numberOfKeys; key++) {
+      falsePositives += sut.contains(FilterKeys.key(key)) ? 1 : 0;
+    }
+    for (int key = 0; key < numberOfKeys; key++) {
+      Assertions.assertThat(sut.contains(FilterKeys.key(key))).isTrue();
+    }
+    Assertions.assertThat(falsePositives).isLessThan(numberOfKeys / 1000);
+    Assertions.assertThat(sut)
+        .returns(32768, CuckooFilter::numberOfBuckets)
+        .returns(100000D / 131072, CuckooFilter::loadFactor)
+        .returns(16D * 131072 / 100000, CuckooFilter::bitsPerKey);
+  }
+
+  @Test
+  void shouldThrowExceptionCaseUnreachablePrecision() {
+    // When
+    final var result = Assertions.catchThrowable(
+        () -> CuckooFilter.approximate(0, 0.99999D, 100));
+
+    // Then
+    Assertions.assertThat(result)
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldCreateCaseMaxNumberOfBuckets() {
+    // Given
+    // fingerprints of 2^28 buckets take 2 GiB
+    Assumptions.assumeTrue(Runtime.getRuntime().maxMemory() > (3L << 30));
+
+    // When
+    final var result = CuckooFilter.create(1 << 28, 0);
+
+    // Then
+    Assertions.assertThat(result.numberOfBuckets()).isEqualTo(1 << 28);
+  }
+
+  @Test
+  void shouldThrowExceptionCaseTooManyBuckets() {
+    // When
+    final var result = Assertions.catchThrowable(
+        () -> CuckooFilter.create((1 << 28) + 1, 0));
+
+    // Then
+    Assertions.assertThat(result)
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldThrowExceptionCaseTooManyExpectedKeys() {
+    // When
+    final var result = Assertions.catchThrowable(
+        () -> CuckooFilter.approximate(0, 0.99D, 4L << 28));
+
+    // Then
+    Assertions.assertThat(result)
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,14 @@
+package com.lesson.ads.chapter4;
+
+import java.nio.charset.StandardCharsets;
+
+// keys shared by filter tests
+final class FilterKeys {
+
+  private FilterKeys() {
+  }
+
+  static byte[] key(int key) {
+    return Integer.toString(key).getBytes(StandardCharsets.UTF_8);
+  }
+}
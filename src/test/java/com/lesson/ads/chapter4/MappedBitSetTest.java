@@ -0,0 +1,61 @@
+package com.lesson.ads.chapter4;
+
+import java.nio.file.Path;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedBitSetTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void shouldSetBit() {
+    // Given
+    final var sut = MappedBitSet.map(directory.resolve("bits"), 0, 128);
+
+    // When
+    sut.set(63);
+
+    // Then
+    Assertions.assertThat(sut)
+        .returns(true, bitSet -> bitSet.get(63))
+        .returns(false, bitSet -> bitSet.get(64))
+        .returns(128, MappedBitSet::size);
+  }
+
+  @Test
+  void shouldUnsetBit() {
+    // Given
+    final var sut = MappedBitSet.map(directory.resolve("bits"), 0, 128);
+    sut.set(63);
+
+    // When
+    sut.unset(63);
+
+    // Then
+    Assertions.assertThat(sut)
+        .returns(false, bitSet -> bitSet.get(63));
+  }
+
+  @Test
+  void shouldMapCaseExistingFile() {
+    // Given
+    final var path = directory.resolve("bits");
+    final var bitSet = MappedBitSet.map(path, 8, 128);
+    bitSet.set(0);
+    bitSet.set(63);
+    bitSet.set(64);
+    bitSet.set(65);
+    bitSet.force();
+
+    // When
+    final var result = MappedBitSet.map(path, 8, 128);
+
+    // Then
+    Assertions.assertThat(result.words())
+        .containsExactly(-9223372036854775807L, 3L);
+    Assertions.assertThat(path).hasSize(8 + MappedBitSet.sizeInBytes(128));
+  }
+}
@@ -0,0 +1,89 @@
+package com.lesson.ads.chapter4;
+
+import com.google.common.hash.Hashing;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class Murmur3Test {
+
+  @Test
+  void shouldHash128CaseSameAsGuava() {
+    // Given
+    final var random = new Random();
+    final var hash = new long[2];
+
+    for (int length = 0; length < 100; length++) {
+      final var bytes = new byte[length];
+      random.nextBytes(bytes);
+      final var seed = random.nextInt();
+      final var expected = ByteBuffer
+          .wrap(Hashing.murmur3_128(seed).hashBytes(bytes).asBytes())
+          .order(ByteOrder.LITTLE_ENDIAN);
+
+      // When
+      Murmur3.hash128(bytes, 0, length, seed, hash);
+
+      // Then
+      Assertions.assertThat(hash).containsExactly(expected.getLong(0), expected.getLong(8));
+    }
+  }
+
+  @Test
+  void shouldHash128CaseOffset() {
+    // Given
+    final var bytes = "prefix key".getBytes();
+    final var key = "key".getBytes();
+    final var expected = new long[2];
+    Murmur3.hash128(key, 0, key.length, 0, expected);
+    final var result = new long[2];
+
+    // When
+    Murmur3.hash128(bytes, 7, 3, 0, result);
+
+    // Then
+    Assertions.assertThat(result).containsExactly(expected);
+  }
+
+  @Test
+  void shouldHash128CaseByteBuffer() {
+    // Given
+    final var bytes = new byte[40];
+    new Random().nextBytes(bytes);
+    final var buffer = ByteBuffer.allocateDirect(bytes.length).put(bytes);
+    final var expected = new long[2];
+    Murmur3.hash128(bytes, 3, 35, 7, expected);
+    final var result = new long[2];
+
+    // When
+    Murmur3.hash128(buffer, 3, 35, 7, result);
+
+    // Then
+    Assertions.assertThat(result).containsExactly(expected);
+  }
+
+  @Test
+  void shouldHash128CasePrimitives() {
+    // Given
+    final var longBytes = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN)
+        .putLong(-42L).array();
+    final var intBytes = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN)
+        .putInt(-42).array();
+    final var expectedLong = new long[2];
+    final var expectedInt = new long[2];
+    Murmur3.hash128(longBytes, 0, 8, 7, expectedLong);
+    Murmur3.hash128(intBytes, 0, 4, 7, expectedInt);
+    final var resultLong = new long[2];
+    final var resultInt = new long[2];
+
+    // When
+    Murmur3.hash128(-42L, 7, resultLong);
+    Murmur3.hash128(-42, 7, resultInt);
+
+    // Then
+    Assertions.assertThat(resultLong).containsExactly(expectedLong);
+    Assertions.assertThat(resultInt).containsExactly(expectedInt);
+  }
+}
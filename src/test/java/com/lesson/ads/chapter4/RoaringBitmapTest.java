@@ -0,0 +1,247 @@
+package com.lesson.ads.chapter4;
+
+import java.util.ArrayList;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+class RoaringBitmapTest {
+
+  @Test
+  void shouldAdd() {
+    // Given
+    final var sut = new RoaringBitmap();
+
+    // When
+    sut.add(7);
+    sut.add(Integer.MAX_VALUE);
+    sut.add(7);
+
+    // Then
+    Assertions.assertThat(sut)
+        .returns(true, bitmap -> bitmap.contains(7))
+        .returns(true, bitmap -> bitmap.contains(Integer.MAX_VALUE))
+        .returns(false, bitmap -> bitmap.contains(8))
+        .returns(false, bitmap -> bitmap.contains(-1))
+        .returns(2L, RoaringBitmap::cardinality);
+  }
+
+  @Test
+  void shouldAddCaseBitmapContainer() {
+    // When
+    final var sut = bitmap(0, 10000);
+
+    // Then
+    Assertions.assertThat(sut)
+        .returns(true, bitmap -> bitmap.contains(9999))
+        .returns(false, bitmap -> bitmap.contains(10000))
+        .returns(10000L, RoaringBitmap::cardinality)
+        .returns(8194L, RoaringBitmap::sizeInBytes);
+  }
+
+  @Test
+  void shouldThrowExceptionCaseNegativeValue() {
+    // Given
+    final var sut = new RoaringBitmap();
+
+    // When
+    final var result = Assertions.catchThrowable(() -> sut.add(-1));
+
+    // Then
+    Assertions.assertThat(result)
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldRemove() {
+    // Given
+    final var sut = new RoaringBitmap();
+    sut.add(1);
+    sut.add(1 << 20);
+
+    // When
+    sut.remove(1 << 20);
+    sut.remove(2);
+
+    // Then
+    Assertions.assertThat(sut)
+        .returns(true, bitmap -> bitmap.contains(1))
+        .returns(false, bitmap -> bitmap.contains(1 << 20))
+        .returns(1L, RoaringBitmap::cardinality)
+        .returns(4L, RoaringBitmap::sizeInBytes);
+  }
+
+  @Test
+  void shouldRemoveCaseBitmapContainer() {
+    // Given
+    final var sut = bitmap(0, 5000);
+
+    // When
+    for (int value = 0; value < 1000; value++) {
+      sut.remove(value);
+    }
+
+    // Then
+    Assertions.assertThat(sut)
+        .returns(false, bitmap -> bitmap.contains(999))
+        .returns(true, bitmap -> bitmap.contains(1000))
+        .returns(4000L, RoaringBitmap::cardinality)
+        .returns(8002L, RoaringBitmap::sizeInBytes);
+  }
+
+  @Test
+  void shouldAnd() {
+    // Given
+    final var sut = bitmap(0, 10000);
+    sut.add(1 << 20);
+    final var that = bitmap(9990, 20000);
+    that.add(1 << 20);
+    that.add(1 << 24);
+
+    // When
+    sut.and(that);
+
+    // Then
+    Assertions.assertThat(values(sut))
+        .containsExactly(9990, 9991, 9992, 9993, 9994, 9995, 9996, 9997, 9998, 9999, 1 << 20);
+  }
+
+  @Test
+  void shouldOr() {
+    // Given
+    final var sut = bitmap(0, 3000);
+    final var that = bitmap(2000, 5000);
+    that.add(1 << 24);
+
+    // When
+    sut.or(that);
+    that.add(1 << 25);
+
+    // Then
+    Assertions.assertThat(sut)
+        .returns(5001L, RoaringBitmap::cardinality)
+        .returns(true, bitmap -> bitmap.contains(4999))
+        .returns(true, bitmap -> bitmap.contains(1 << 24))
+        .returns(false, bitmap -> bitmap.contains(1 << 25));
+  }
+
+  @Test
+  void shouldRunOptimize() {
+    // Given
+    final var sut = bitmap(0, 60000);
+    sut.add(65536);
+    sut.add(65537);
+
+    // When
+    sut.runOptimize();
+
+    // Then
+    Assertions.assertThat(sut)
+        .returns(60002L, RoaringBitmap::cardinality)
+        .returns(12L, RoaringBitmap::sizeInBytes)
+        .returns(true, bitmap -> bitmap.contains(59999))
+        .returns(false, bitmap -> bitmap.contains(60000));
+    Assertions.assertThat(values(sut))
+        .hasSize(60002)
+        .endsWith(59999, 65536, 65537);
+  }
+
+  @Test
+  void shouldAddCaseRunContainer() {
+    // Given
+    final var sut = bitmap(0, 100);
+    sut.runOptimize();
+
+    // When
+    sut.add(200);
+    sut.remove(50);
+
+    // Then
+    Assertions.assertThat(sut)
+        .returns(100L, RoaringBitmap::cardinality)
+        .returns(true, bitmap -> bitmap.contains(200))
+        .returns(false, bitmap -> bitmap.contains(50));
+  }
+
+  @Test
+  void shouldIterate() {
+    // Given
+    final var sut = new RoaringBitmap();
+    sut.add(1 << 30);
+    sut.add(3);
+    sut.add(70000);
+
+    // When
+    final var result = sut.iterator();
+
+    // Then
+    Assertions.assertThat(result)
+        .toIterable()
+        .containsExactly(3, 70000, 1 << 30);
+    Assertions.assertThatThrownBy(result::nextInt)
+        .isInstanceOf(NoSuchElementException.class);
+  }
+
+  @RepeatedTest(value = 10)
+  void shouldAndOrRandomBitmaps() {
+    // Given
+    final var random = new Random();
+    final var sut = new RoaringBitmap();
+    final var that = new RoaringBitmap();
+    final var expectedSut = new TreeSet<Integer>();
+    final var expectedThat = new TreeSet<Integer>();
+    for (int index = 0; index < 20000; index++) {
+      // dense and sparse chunks
+      final var value = random.nextBoolean()
+          ? random.nextInt(3 << 16) : random.nextInt(Integer.MAX_VALUE);
+      if (random.nextBoolean()) {
+        sut.add(value);
+        expectedSut.add(value);
+      } else {
+        that.add(value);
+        expectedThat.add(value);
+      }
+    }
+    if (random.nextBoolean()) {
+      sut.runOptimize();
+    }
+
+    // When
+    final var union = copy(sut);
+    union.or(that);
+    final var intersection = copy(sut);
+    intersection.and(that);
+
+    // Then
+    final var expectedUnion = new TreeSet<>(expectedSut);
+    expectedUnion.addAll(expectedThat);
+    final var expectedIntersection = new TreeSet<>(expectedSut);
+    expectedIntersection.retainAll(expectedThat);
+    Assertions.assertThat(values(union)).containsExactlyElementsOf(expectedUnion);
+    Assertions.assertThat(values(intersection)).containsExactlyElementsOf(expectedIntersection);
+    Assertions.assertThat(union.iterator()).toIterable().containsExactlyElementsOf(expectedUnion);
+  }
+
+  private static RoaringBitmap bitmap(int from, int to) {
+    final var bitmap = new RoaringBitmap();
+    for (int value = from; value < to; value++) {
+      bitmap.add(value);
+    }
+    return bitmap;
+  }
+
+  private static RoaringBitmap copy(RoaringBitmap bitmap) {
+    final var copy = new RoaringBitmap();
+    copy.or(bitmap);
+    return copy;
+  }
+
+  private static ArrayList<Integer> values(RoaringBitmap bitmap) {
+    final var values = new ArrayList<Integer>();
+    bitmap.forEach(values::add);
+    return values;
+  }
+}
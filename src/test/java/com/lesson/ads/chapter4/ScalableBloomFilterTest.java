@@ -0,0 +1,62 @@
+package com.lesson.ads.chapter4;
+
+import java.nio.charset.StandardCharsets;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ScalableBloomFilterTest {
+
+  @Test
+  void shouldCheckContains() {
+    // Given
+    final var key = "key".getBytes(StandardCharsets.UTF_8);
+    final var anotherKey = "another key".getBytes(StandardCharsets.UTF_8);
+    final var sut = ScalableBloomFilter.approximate(0, 0.99D, 100);
+    sut.add(key);
+
+    // When
+    final var result = sut.contains(key);
+
+    // Then
+    Assertions.assertThat(result).isTrue();
+    Assertions.assertThat(sut.contains(anotherKey)).isFalse();
+  }
+
+  @Test
+  void shouldAddCaseKeyPresent() {
+    // Given
+    final var key = "key".getBytes(StandardCharsets.UTF_8);
+    final var sut = ScalableBloomFilter.approximate(0, 0.99D, 100);
+    sut.add(key);
+
+    // When
+    sut.add(key);
+
+    // Then
+    Assertions.assertThat(sut.numberOfKeys()).isEqualTo(1L);
+  }
+
+  @Test
+  void shouldAddCaseGrowth() {
+    // Given
+    final var numberOfKeys = 7000;
+    final var sut = ScalableBloomFilter.approximate(0, 0.99D, 1000);
+
+    // When
+    for (int key = 0; key < numberOfKeys; key++) {
+      sut.add(FilterKeys.key(key));
+    }
+
+    // Then
+    var falsePositives = 0;
+    for (int key = numberOfKeys; key < 2 * numberOfKeys; key++) {
+      falsePositives += sut.contains(FilterKeys.key(key)) ? 1 : 0;
+    }
+    for (int key = 0; key < numberOfKeys; key++) {
+      Assertions.assertThat(sut.contains(FilterKeys.key(key))).isTrue();
+    }
+    // capacities 1000, 2000, 4000
+    Assertions.assertThat(sut.numberOfBloomFilters()).isEqualTo(3);
+    Assertions.assertThat(falsePositives).isLessThan(numberOfKeys / 50);
+  }
+}
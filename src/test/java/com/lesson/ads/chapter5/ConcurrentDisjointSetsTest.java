@@ -0,0 +1,111 @@
+package com.lesson.ads.chapter5;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.SneakyThrows;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentDisjointSetsTest {
+
+  @Test
+  void shouldCreate() {
+    // When
+    final var sut = new ConcurrentDisjointSets(3);
+
+    // Then
+    Assertions.assertThat(sut)
+        .returns(3, ConcurrentDisjointSets::size)
+        .returns(3, ConcurrentDisjointSets::numberOfSets)
+        .returns(2, disjointSets -> disjointSets.findRoot(2));
+  }
+
+  @Test
+  void shouldMerge() {
+    // Given
+    final var sut = new ConcurrentDisjointSets(3);
+
+    // When
+    final var result = sut.merge(0, 1);
+
+    // Then
+    Assertions.assertThat(result).isTrue();
+    Assertions.assertThat(sut)
+        .returns(sut.findRoot(0), disjointSets -> disjointSets.findRoot(1))
+        .returns(true, disjointSets -> disjointSets.sameSet(0, 1))
+        .returns(false, disjointSets -> disjointSets.sameSet(0, 2))
+        .returns(false, disjointSets -> disjointSets.merge(1, 0))
+        .returns(2, ConcurrentDisjointSets::numberOfSets);
+  }
+
+  @Test
+  void shouldThrowExceptionCaseElementOutOfRange() {
+    // Given
+    final var sut = new ConcurrentDisjointSets(3);
+
+    // When
+    final var result = Assertions.catchThrowable(() -> sut.merge(0, 3));
+
+    // Then
+    Assertions.assertThat(result)
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @RepeatedTest(value = 5)
+  void shouldMergeConcurrently() throws Exception {
+    // Given
+    final var size = 100000;
+    final var numberOfThreads = 8;
+    final var random = new Random();
+    final var edges = new int[size / 2][];
+    final var expected = new IntDisjointSets(size);
+    for (int index = 0; index < edges.length; index++) {
+      edges[index] = new int[]{random.nextInt(size), random.nextInt(size)};
+      expected.merge(edges[index][0], edges[index][1]);
+    }
+    final var sut = new ConcurrentDisjointSets(size);
+    final var numberOfMerges = new AtomicInteger();
+    final var start = new CountDownLatch(1);
+    final var executor = Executors.newFixedThreadPool(numberOfThreads);
+
+    final var workers = new ArrayList<Future<?>>();
+
+    // When
+    for (int thread = 0; thread < numberOfThreads; thread++) {
+      final var offset = thread;
+      workers.add(executor.submit(() -> {
+        await(start);
+        // every thread merges its own partition of the edge list
+        for (int index = offset; index < edges.length; index += numberOfThreads) {
+          if (sut.merge(edges[index][0], edges[index][1])) {
+            numberOfMerges.incrementAndGet();
+          }
+        }
+      }));
+    }
+    start.countDown();
+    for (var worker : workers) {
+      worker.get(1, TimeUnit.MINUTES);
+    }
+    executor.shutdown();
+
+    // Then
+    Assertions.assertThat(sut.numberOfSets()).isEqualTo(expected.numberOfSets());
+    Assertions.assertThat(numberOfMerges).hasValue(size - expected.numberOfSets());
+    for (int element = 1; element < size; element++) {
+      Assertions.assertThat(sut.sameSet(element - 1, element))
+          .isEqualTo(expected.sameSet(element - 1, element));
+    }
+  }
+
+  @SneakyThrows
+  private static void await(CountDownLatch latch) {
+    latch.await();
+  }
+}
@@ -0,0 +1,85 @@
+package com.lesson.ads.chapter5;
+
+import java.util.List;
+import java.util.Set;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class IndexedDisjointSetsTest {
+
+  @Test
+  void shouldCreateWithElements() {
+    // When
+    final var sut = new IndexedDisjointSets<>(List.of("A", "B"));
+
+    // Then
+    Assertions.assertThat(sut.disjointSets())
+        .containsOnly(Set.of("A"), Set.of("B"));
+    Assertions.assertThat(sut.index("B")).isEqualTo(1);
+  }
+
+  @Test
+  void shouldAdd() {
+    // Given
+    final var sut = new IndexedDisjointSets<>(List.of("B"));
+
+    // When
+    final var result = sut.add("A");
+
+    // Then
+    Assertions.assertThat(result).isEqualTo("A");
+    Assertions.assertThat(sut.findRoot("A")).isEqualTo("A");
+  }
+
+  @Test
+  void shouldThrowExceptionCaseElementPresent() {
+    // Given
+    final var sut = new IndexedDisjointSets<>(List.of("A"));
+
+    // When
+    final var result = Assertions.catchThrowable(() -> sut.add("A"));
+
+    // Then
+    Assertions.assertThat(result)
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldMerge() {
+    // Given
+    final var sut = new IndexedDisjointSets<>(List.of("A", "B", "C"));
+
+    // When
+    final var result = sut.merge("A", "B");
+
+    // Then
+    Assertions.assertThat(result).isTrue();
+    Assertions.assertThat(sut)
+        .returns("A", disjointSets -> disjointSets.findRoot("B"))
+        .returns(true, disjointSets -> disjointSets.sameSet("A", "B"))
+        .returns(false, disjointSets -> disjointSets.sameSet("A", "C"))
+        .returns(false, disjointSets -> disjointSets.merge("B", "A"))
+        .returns(2, IndexedDisjointSets::numberOfSets);
+  }
+
+  @Test
+  void shouldCreateAddMergeFind() {
+    // Given
+    final var sut = new IndexedDisjointSets<>(List.of("A", "B", "C", "D", "E", "F", "G", "K"));
+    sut.add("L");
+    sut.merge("A", "B");
+    sut.merge("B", "C");
+    sut.merge("D", "E");
+    sut.merge("D", "F");
+    sut.merge("D", "G");
+    sut.merge("A", "D");
+    sut.merge("K", "L");
+
+    // When
+    final var result = sut.disjointSets();
+
+    // Then
+    Assertions.assertThat(result)
+        .containsOnly(Set.of("A", "B", "C", "D", "E", "F", "G"), Set.of("K", "L"));
+  }
+}
@@ -0,0 +1,131 @@
+package com.lesson.ads.chapter5;
+
+import java.util.Random;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+class IntDisjointSetsTest {
+
+  @Test
+  void shouldCreate() {
+    // When
+    final var sut = new IntDisjointSets(3);
+
+    // Then
+    Assertions.assertThat(sut)
+        .returns(3, IntDisjointSets::size)
+        .returns(3, IntDisjointSets::numberOfSets)
+        .returns(2, disjointSets -> disjointSets.findRoot(2));
+  }
+
+  @Test
+  void shouldAdd() {
+    // Given
+    final var sut = new IntDisjointSets(16);
+
+    // When
+    final var result = sut.add();
+
+    // Then
+    Assertions.assertThat(result).isEqualTo(16);
+    Assertions.assertThat(sut)
+        .returns(17, IntDisjointSets::size)
+        .returns(17, IntDisjointSets::numberOfSets)
+        .returns(16, disjointSets -> disjointSets.findRoot(16));
+  }
+
+  @Test
+  void shouldMerge() {
+    // Given
+    final var sut = new IntDisjointSets(3);
+
+    // When
+    final var result = sut.merge(0, 1);
+
+    // Then
+    Assertions.assertThat(result).isTrue();
+    Assertions.assertThat(sut)
+        .returns(0, disjointSets -> disjointSets.findRoot(1))
+        .returns(true, disjointSets -> disjointSets.sameSet(0, 1))
+        .returns(false, disjointSets -> disjointSets.sameSet(0, 2))
+        .returns(2, IntDisjointSets::numberOfSets);
+  }
+
+  @Test
+  void shouldMergeCaseAlreadyMerged() {
+    // Given
+    final var sut = new IntDisjointSets(3);
+    sut.merge(0, 1);
+
+    // When
+    final var result = sut.merge(1, 0);
+
+    // Then
+    Assertions.assertThat(result).isFalse();
+    Assertions.assertThat(sut.numberOfSets()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldMergeCaseLongChain() {
+    // Given
+    final var size = 1_000_000;
+    final var sut = new IntDisjointSets(size);
+
+    // When
+    for (int element = size - 1; element > 0; element--) {
+      sut.merge(element, element - 1);
+    }
+
+    // Then
+    Assertions.assertThat(sut.numberOfSets()).isEqualTo(1);
+    Assertions.assertThat(sut.sameSet(0, size - 1)).isTrue();
+  }
+
+  @Test
+  void shouldThrowExceptionCaseElementOutOfRange() {
+    // Given
+    final var sut = new IntDisjointSets(3);
+
+    // When
+    final var result = Assertions.catchThrowable(() -> sut.findRoot(3));
+
+    // Then
+    Assertions.assertThat(result)
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @RepeatedTest(value = 10)
+  void shouldMergeRandomElements() {
+    // Given
+    final var random = new Random();
+    final var size = 1000;
+    final var sut = new IntDisjointSets(size);
+    // naive labels: every element keeps the label of its set
+    final var labels = new int[size];
+    for (int element = 0; element < size; element++) {
+      labels[element] = element;
+    }
+
+    // When
+    for (int merge = 0; merge < 700; merge++) {
+      final var left = random.nextInt(size);
+      final var right = random.nextInt(size);
+      final var leftLabel = labels[left];
+      final var rightLabel = labels[right];
+      Assertions.assertThat(sut.merge(left, right)).isEqualTo(leftLabel != rightLabel);
+      for (int element = 0; element < size; element++) {
+        if (labels[element] == rightLabel) {
+          labels[element] = leftLabel;
+        }
+      }
+    }
+
+    // Then
+    for (int element = 0; element < size; element++) {
+      final var other = random.nextInt(size);
+      Assertions.assertThat(sut.sameSet(element, other))
+          .isEqualTo(labels[element] == labels[other]);
+    }
+  }
+}